@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core;
+
+import com.giphy.sdk.core.models.Category;
+import com.giphy.sdk.core.network.api.GPHApiClient;
+import com.giphy.sdk.core.network.api.GPHAsyncApiClient;
+import com.giphy.sdk.core.network.response.ListCategoryResponse;
+import com.giphy.sdk.core.network.response.ListMediaResponse;
+import com.giphy.sdk.core.threading.ApiFuture;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class AsyncApiTest {
+    GPHAsyncApiClient imp;
+
+    @Before
+    public void setUp() throws Exception {
+        imp = new GPHAsyncApiClient(new GPHApiClient("dc6zaTOxFJmzC"));
+    }
+
+    /**
+     * Test chaining categories into their subcategories and gifs, fetched in parallel
+     * @throws Exception
+     */
+    @Test
+    public void testCompose() throws Exception {
+        final ApiFuture<List<ListMediaResponse>> gifs = imp.categoriesForGifs(1, 0, null)
+                .thenCompose(new ApiFuture.Composition<ListCategoryResponse, ListCategoryResponse>() {
+                    @Override
+                    public ApiFuture<ListCategoryResponse> apply(ListCategoryResponse categories) {
+                        return imp.subCategoriesForGifs(categories.getData().get(0).getNameEncoded(), 2, 0, null);
+                    }
+                })
+                .thenCompose(new ApiFuture.Composition<ListCategoryResponse, List<ListMediaResponse>>() {
+                    @Override
+                    public ApiFuture<List<ListMediaResponse>> apply(ListCategoryResponse subCategories) {
+                        final List<ApiFuture<ListMediaResponse>> futures = new ArrayList<>();
+                        for (Category subCategory : subCategories.getData()) {
+                            final String[] path = subCategory.getEncodedPath().split("/");
+                            futures.add(imp.gifsByCategory(path[0], path[1], 5, 0, null, null));
+                        }
+                        return ApiFuture.allOf(futures);
+                    }
+                });
+
+        final List<ListMediaResponse> results = gifs.get(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(2, results.size());
+        for (ListMediaResponse result : results) {
+            Assert.assertNotNull(result);
+            Assert.assertTrue(result.getData().size() <= 5);
+        }
+    }
+
+    /**
+     * Test that a request not completing in time fails with a timeout and is cancelled
+     * @throws Exception
+     */
+    @Test
+    public void testTimeout() throws Exception {
+        final ApiFuture<ListMediaResponse> search = imp.search("hack", null, null, null, null, null);
+        final ApiFuture<ListMediaResponse> timed = search.withTimeout(1, TimeUnit.MILLISECONDS);
+        try {
+            timed.get(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+            Assert.fail("Expected a timeout");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+            Assert.assertTrue(search.isCancelled());
+        }
+    }
+
+    /**
+     * Test that the results are delivered on the given executor
+     * @throws Exception
+     */
+    @Test
+    public void testCompletionExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "Async client results");
+            }
+        });
+        final GPHAsyncApiClient client = new GPHAsyncApiClient(new GPHApiClient("dc6zaTOxFJmzC"), executor);
+
+        final String thread = client.trending(null, 1, 0, null)
+                .thenApply(new ApiFuture.Transform<ListMediaResponse, String>() {
+                    @Override
+                    public String apply(ListMediaResponse result) {
+                        return Thread.currentThread().getName();
+                    }
+                })
+                .get(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Async client results", thread);
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core;
+
+import com.giphy.sdk.core.network.api.BatchingPolicy;
+import com.giphy.sdk.core.network.api.CompletionHandler;
+import com.giphy.sdk.core.network.api.GPHApiClient;
+import com.giphy.sdk.core.network.engine.ApiException;
+import com.giphy.sdk.core.network.response.MediaResponse;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.HttpURLConnection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class GifByIdBatchingTest {
+    GPHApiClient imp;
+
+    @Before
+    public void setUp() throws Exception {
+        imp = new GPHApiClient("dc6zaTOxFJmzC");
+        imp.setGifByIdBatching(new BatchingPolicy());
+    }
+
+    /**
+     * Test that every caller of a batch gets the gif it asked for
+     * @throws Exception
+     */
+    @Test
+    public void testBase() throws Exception {
+        final String[] gifIds = {"GSotmi2t5hEA", "darAMUceRAs0w", "l4FGF1Lk3GibtKchO"};
+        final CountDownLatch lock = new CountDownLatch(gifIds.length);
+
+        for (final String gifId : gifIds) {
+            imp.gifById(gifId, new CompletionHandler<MediaResponse>() {
+                @Override
+                public void onComplete(MediaResponse result, Throwable e) {
+                    Assert.assertNull(e);
+                    Assert.assertNotNull(result);
+                    Assert.assertEquals(gifId, result.getData().getId());
+                    lock.countDown();
+                }
+            });
+        }
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(0, lock.getCount());
+    }
+
+    /**
+     * Test that a missing gif fails on its own without failing the rest of the batch
+     * @throws Exception
+     */
+    @Test
+    public void testGifNotFound() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(2);
+
+        imp.gifById("darAMUceRAs0w", new CompletionHandler<MediaResponse>() {
+            @Override
+            public void onComplete(MediaResponse result, Throwable e) {
+                Assert.assertNull(e);
+                Assert.assertNotNull(result);
+                lock.countDown();
+            }
+        });
+        imp.gifById("darAMUceRAs0w_ttttttttt", new CompletionHandler<MediaResponse>() {
+            @Override
+            public void onComplete(MediaResponse result, Throwable e) {
+                Assert.assertNull(result);
+                Assert.assertTrue(e instanceof ApiException);
+                Assert.assertEquals(HttpURLConnection.HTTP_NOT_FOUND,
+                        ((ApiException) e).getErrorResponse().getMeta().getStatus());
+                lock.countDown();
+            }
+        });
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(0, lock.getCount());
+    }
+}
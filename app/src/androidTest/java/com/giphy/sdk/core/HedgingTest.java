@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core;
+
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.giphy.sdk.core.network.api.CompletionHandler;
+import com.giphy.sdk.core.network.api.GPHApiClient;
+import com.giphy.sdk.core.network.engine.DefaultNetworkSession;
+import com.giphy.sdk.core.network.engine.HedgingPolicy;
+import com.giphy.sdk.core.network.response.ListMediaResponse;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HedgingTest {
+    GPHApiClient imp;
+    HedgingPolicy hedgingPolicy;
+
+    @Before
+    public void setUp() throws Exception {
+        hedgingPolicy = new HedgingPolicy();
+
+        final DefaultNetworkSession session = new DefaultNetworkSession();
+        session.setHedgingPolicy(hedgingPolicy);
+        imp = new GPHApiClient("dc6zaTOxFJmzC", session);
+    }
+
+    /**
+     * Test that only the term suggestions and the first page of search are hedged
+     * @throws Exception
+     */
+    @Test
+    public void testShouldHedge() throws Exception {
+        final Map<String, String> params = new HashMap<>();
+        Assert.assertTrue(hedgingPolicy.shouldHedge("v1/queries/suggest/cats", params));
+        Assert.assertTrue(hedgingPolicy.shouldHedge("v1/gifs/search", params));
+
+        params.put("offset", "25");
+        Assert.assertFalse(hedgingPolicy.shouldHedge("v1/gifs/search", params));
+        Assert.assertFalse(hedgingPolicy.shouldHedge("v1/gifs/trending", params));
+    }
+
+    /**
+     * Test that a hedged search is answered once
+     * @throws Exception
+     */
+    @Test
+    public void testHedgedSearch() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        imp.search("hungry", MediaType.gif, 20, null, null, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(ListMediaResponse result, Throwable e) {
+                Assert.assertNull(e);
+                Assert.assertNotNull(result);
+                Assert.assertEquals(1, lock.getCount());
+                lock.countDown();
+            }
+        });
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+    }
+}
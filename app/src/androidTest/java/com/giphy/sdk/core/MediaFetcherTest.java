@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core;
+
+import android.support.test.InstrumentationRegistry;
+
+import com.giphy.sdk.core.models.Image;
+import com.giphy.sdk.core.models.enums.ImageFormat;
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.giphy.sdk.core.network.api.CompletionHandler;
+import com.giphy.sdk.core.network.api.GPHApiClient;
+import com.giphy.sdk.core.network.api.MediaFetcher;
+import com.giphy.sdk.core.network.cache.MediaCache;
+import com.giphy.sdk.core.network.response.ListMediaResponse;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MediaFetcherTest {
+    GPHApiClient imp;
+    MediaFetcher fetcher;
+    File cacheDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        imp = new GPHApiClient("dc6zaTOxFJmzC");
+        cacheDirectory = new File(InstrumentationRegistry.getTargetContext().getCacheDir(), "giphy-media-test");
+        fetcher = new MediaFetcher(cacheDirectory, 8 * 1024 * 1024);
+        fetcher.evictAll();
+    }
+
+    /**
+     * Test that concurrent fetches of a rendition share the download, and that it's then cached
+     * @throws Exception
+     */
+    @Test
+    public void testFetchAndCache() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(2);
+
+        imp.trending(MediaType.gif, 1, 0, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(ListMediaResponse result, Throwable e) {
+                Assert.assertNull(e);
+                final Image image = result.getData().get(0).getImages().getFixedWidthSmallStill();
+                Assert.assertNull(fetcher.getCached(image, ImageFormat.gif));
+
+                final CompletionHandler<File> completionHandler = new CompletionHandler<File>() {
+                    @Override
+                    public void onComplete(File file, Throwable e) {
+                        Assert.assertNull(e);
+                        Assert.assertNotNull(file);
+                        Assert.assertTrue(file.length() > 0);
+                        Assert.assertEquals(file, fetcher.getCached(image, ImageFormat.gif));
+                        lock.countDown();
+                    }
+                };
+                fetcher.fetch(image, ImageFormat.gif, completionHandler);
+                fetcher.fetch(image, ImageFormat.gif, completionHandler);
+            }
+        });
+        lock.await(Utils.MEDIUM_DELAY, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(0, lock.getCount());
+        Assert.assertEquals(1, cacheDirectory.list().length - 1);
+    }
+
+    /**
+     * Test that the least recently used files are evicted, and that interrupted writes are dropped
+     * when the journal is replayed
+     * @throws Exception
+     */
+    @Test
+    public void testCacheJournal() throws Exception {
+        final MediaCache cache = new MediaCache(cacheDirectory, 200);
+        write(cache, "a", 100);
+        write(cache, "b", 100);
+        Assert.assertNotNull(cache.get("a"));
+        write(cache, "c", 100);
+        Assert.assertNull(cache.get("b"));
+
+        final File interrupted = cache.edit("d");
+        new FileOutputStream(interrupted).close();
+
+        final MediaCache reopened = new MediaCache(cacheDirectory, 200);
+        Assert.assertEquals(200, reopened.size());
+        Assert.assertNotNull(reopened.get("a"));
+        Assert.assertNotNull(reopened.get("c"));
+        Assert.assertNull(reopened.get("d"));
+        Assert.assertFalse(interrupted.exists());
+    }
+
+    /**
+     * Test that a file larger than the cache isn't stored, and doesn't evict the other files
+     * @throws Exception
+     */
+    @Test
+    public void testCommitLargerThanCache() throws Exception {
+        final MediaCache cache = new MediaCache(cacheDirectory, 200);
+        write(cache, "a", 100);
+
+        final File tempFile = cache.edit("b");
+        final FileOutputStream out = new FileOutputStream(tempFile);
+        out.write(new byte[300]);
+        out.close();
+        Assert.assertNull(cache.commit("b"));
+
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertEquals(100, cache.size());
+    }
+
+    /**
+     * Test that the head of an MP4 is fetched alone, and that the full fetch reuses it
+     * @throws Exception
+     */
+    @Test
+    public void testFetchHead() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        imp.trending(MediaType.gif, 1, 0, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(ListMediaResponse result, Throwable e) {
+                Assert.assertNull(e);
+                final Image image = result.getData().get(0).getImages().getOriginal();
+
+                fetcher.fetchHead(image, ImageFormat.mp4, 1024, new CompletionHandler<byte[]>() {
+                    @Override
+                    public void onComplete(final byte[] head, Throwable e) {
+                        Assert.assertNull(e);
+                        Assert.assertEquals(1024, head.length);
+                        Assert.assertNull(fetcher.getCached(image, ImageFormat.mp4));
+
+                        fetcher.fetch(image, ImageFormat.mp4, new CompletionHandler<File>() {
+                            @Override
+                            public void onComplete(File file, Throwable e) {
+                                Assert.assertNull(e);
+                                Assert.assertEquals(image.getMp4Size(), file.length());
+                                lock.countDown();
+                            }
+                        });
+                    }
+                });
+            }
+        });
+        lock.await(Utils.MEDIUM_DELAY, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(0, lock.getCount());
+    }
+
+    /**
+     * Test that the bytes of an interrupted write are kept with their validator for the next write
+     * of the entry
+     * @throws Exception
+     */
+    @Test
+    public void testPartialKept() throws Exception {
+        final MediaCache cache = new MediaCache(cacheDirectory, 1000);
+        final FileOutputStream out = new FileOutputStream(cache.edit("a"));
+        out.write(new byte[100]);
+        out.close();
+        cache.keepPartial("a", "Wed, 21 Oct 2015 07:28:00 GMT");
+        Assert.assertNull(cache.get("a"));
+
+        final MediaCache reopened = new MediaCache(cacheDirectory, 1000);
+        Assert.assertEquals(100, reopened.getPartialLength("a"));
+        Assert.assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", reopened.getPartialValidator("a"));
+        Assert.assertEquals(100, reopened.edit("a").length());
+        Assert.assertEquals(0, reopened.getPartialLength("a"));
+        Assert.assertNotNull(reopened.commit("a"));
+        Assert.assertNull(reopened.getPartialValidator("a"));
+    }
+
+    private static void write(MediaCache cache, String key, int length) throws Exception {
+        final FileOutputStream out = new FileOutputStream(cache.edit(key));
+        try {
+            out.write(new byte[length]);
+        } finally {
+            out.close();
+        }
+        Assert.assertNotNull(cache.commit(key));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core;
+
+import android.support.annotation.NonNull;
+
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.giphy.sdk.core.network.api.GPHApiClient;
+import com.giphy.sdk.core.network.api.MediaPager;
+import com.giphy.sdk.core.network.api.PagePrefetcher;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MediaPagerTest {
+    GPHApiClient imp;
+
+    @Before
+    public void setUp() throws Exception {
+        imp = new GPHApiClient("dc6zaTOxFJmzC");
+    }
+
+    /**
+     * Test that reading close to the end loads the next page without duplicates
+     * @throws Exception
+     */
+    @Test
+    public void testPrefetchNextPage() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(2);
+        final MediaPager pager = MediaPager.trending(imp, MediaType.gif, null);
+        pager.setPageSize(20);
+        pager.setPrefetchDistance(5);
+        pager.setListener(new MediaPager.Listener() {
+            @Override
+            public void onPageLoaded(@NonNull MediaPager pager, int positionStart, int itemCount) {
+                Assert.assertTrue(itemCount > 0);
+                lock.countDown();
+                if (positionStart == 0) {
+                    // Within the prefetch distance of the end
+                    pager.get(pager.size() - 3);
+                }
+            }
+
+            @Override
+            public void onError(@NonNull MediaPager pager, @NonNull Throwable e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        pager.loadNextPage();
+        lock.await(Utils.MEDIUM_DELAY, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(pager.size() > 20);
+        final Set<String> ids = new HashSet<>();
+        for (int i = 0; i < pager.size(); i++) {
+            Assert.assertTrue(ids.add(pager.getItems().get(i).getId()));
+        }
+    }
+
+    /**
+     * Test that the pager stops at the total count
+     * @throws Exception
+     */
+    @Test
+    public void testStopsAtTotalCount() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+        final MediaPager pager = MediaPager.search(imp, "jjhjhhjhhhjjhhh", MediaType.gif, null, null);
+        pager.setListener(new MediaPager.Listener() {
+            @Override
+            public void onPageLoaded(@NonNull MediaPager pager, int positionStart, int itemCount) {
+                Assert.assertEquals(0, pager.size());
+                Assert.assertFalse(pager.hasMore());
+                lock.countDown();
+            }
+
+            @Override
+            public void onError(@NonNull MediaPager pager, @NonNull Throwable e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        pager.loadNextPage();
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Test that the prefetcher measures the pages and loads ahead of a fast consumer
+     * @throws Exception
+     */
+    @Test
+    public void testAdaptivePrefetch() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+        final PagePrefetcher prefetcher = new PagePrefetcher();
+        final MediaPager pager = MediaPager.trending(imp, MediaType.gif, null);
+        pager.setPrefetcher(prefetcher);
+        pager.setListener(new MediaPager.Listener() {
+            @Override
+            public void onPageLoaded(@NonNull MediaPager pager, int positionStart, int itemCount) {
+                if (positionStart == 0) {
+                    lock.countDown();
+                }
+            }
+
+            @Override
+            public void onError(@NonNull MediaPager pager, @NonNull Throwable e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        pager.loadNextPage();
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(prefetcher.getLatencyMs() >= 0);
+        for (int i = 0; i < pager.size(); i++) {
+            pager.get(i);
+            Thread.sleep(5);
+        }
+        Assert.assertTrue(prefetcher.getVelocity() > 0);
+        Assert.assertTrue(pager.isLoading());
+        pager.cancel();
+        Assert.assertFalse(pager.isLoading());
+    }
+}
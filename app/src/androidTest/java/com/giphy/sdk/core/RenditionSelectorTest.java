@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core;
+
+import com.giphy.sdk.core.models.Images;
+import com.giphy.sdk.core.models.RenditionSelector;
+import com.giphy.sdk.core.models.enums.ImageFormat;
+import com.giphy.sdk.core.models.enums.RenditionType;
+import com.giphy.sdk.core.network.engine.DefaultNetworkSession;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class RenditionSelectorTest {
+    Images images;
+
+    @Before
+    public void setUp() throws Exception {
+        images = DefaultNetworkSession.GSON_INSTANCE.fromJson("{"
+                + "\"fixed_height\":{\"url\":\"https://media.giphy.com/fh.gif\",\"width\":356,\"height\":200,\"size\":900000,"
+                + "\"frames\":30,\"mp4\":\"https://media.giphy.com/fh.mp4\",\"mp4_size\":120000,"
+                + "\"webp\":\"https://media.giphy.com/fh.webp\",\"webp_size\":300000},"
+                + "\"fixed_height_small\":{\"url\":\"https://media.giphy.com/fhs.gif\",\"width\":178,\"height\":100,\"size\":300000,"
+                + "\"frames\":30,\"mp4\":\"https://media.giphy.com/fhs.mp4\",\"mp4_size\":40000},"
+                + "\"fixed_height_still\":{\"url\":\"https://media.giphy.com/fh_s.gif\",\"width\":356,\"height\":200,\"size\":20000}"
+                + "}", Images.class);
+    }
+
+    /**
+     * Test that the cheapest rendition covering the view is selected
+     * @throws Exception
+     */
+    @Test
+    public void testCheapestCoveringRendition() throws Exception {
+        RenditionSelector.Selection selection = new RenditionSelector(150, 90).select(images);
+        Assert.assertEquals(RenditionType.fixedHeightSmall, selection.getImage().getRenditionType());
+        Assert.assertEquals(ImageFormat.mp4, selection.getFormat());
+
+        selection = new RenditionSelector(300, 180).select(images);
+        Assert.assertEquals(RenditionType.fixedHeight, selection.getImage().getRenditionType());
+        Assert.assertEquals(120000, selection.getSize());
+    }
+
+    /**
+     * Test the format and byte budget constraints
+     * @throws Exception
+     */
+    @Test
+    public void testConstraints() throws Exception {
+        final RenditionSelector selector = new RenditionSelector(300, 180);
+        selector.setFormats(ImageFormat.gif);
+        Assert.assertEquals("https://media.giphy.com/fh.gif", selector.select(images).getUrl());
+
+        // Nothing large enough fits, the largest rendition within the budget is used
+        selector.setMaxBytes(500000);
+        Assert.assertEquals(RenditionType.fixedHeightSmall, selector.select(images).getImage().getRenditionType());
+
+        selector.setStillAccepted(true);
+        Assert.assertEquals(RenditionType.fixedHeightStill, selector.select(images).getImage().getRenditionType());
+    }
+}
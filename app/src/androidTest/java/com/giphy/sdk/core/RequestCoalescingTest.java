@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core;
+
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.giphy.sdk.core.network.api.CompletionHandler;
+import com.giphy.sdk.core.network.api.GPHApiClient;
+import com.giphy.sdk.core.network.response.ListMediaResponse;
+import com.giphy.sdk.core.network.response.MediaResponse;
+import com.giphy.sdk.core.threading.Priority;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class RequestCoalescingTest {
+    GPHApiClient imp;
+
+    @Before
+    public void setUp() throws Exception {
+        imp = new GPHApiClient("dc6zaTOxFJmzC");
+    }
+
+    /**
+     * Test that identical concurrent requests share the same response
+     * @throws Exception
+     */
+    @Test
+    public void testSharedResponse() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(3);
+        final MediaResponse[] results = new MediaResponse[3];
+
+        for (int i = 0; i < results.length; i++) {
+            final int index = i;
+            imp.gifById("darAMUceRAs0w", new CompletionHandler<MediaResponse>() {
+                @Override
+                public void onComplete(MediaResponse result, Throwable e) {
+                    Assert.assertNull(e);
+                    Assert.assertNotNull(result);
+                    results[index] = result;
+                    lock.countDown();
+                }
+            });
+        }
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(0, lock.getCount());
+        Assert.assertSame(results[0], results[1]);
+        Assert.assertSame(results[1], results[2]);
+    }
+
+    /**
+     * Test that cancelling one of the callers doesn't cancel the shared request
+     * @throws Exception
+     */
+    @Test
+    public void testCancelOneCaller() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        final Future cancelled = imp.trending(MediaType.gif, 10, 0, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(ListMediaResponse result, Throwable e) {
+                Assert.fail("Cancelled caller should not be notified");
+            }
+        });
+        imp.trending(MediaType.gif, 10, 0, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(ListMediaResponse result, Throwable e) {
+                Assert.assertNull(e);
+                Assert.assertNotNull(result);
+                lock.countDown();
+            }
+        });
+        Assert.assertTrue(cancelled.cancel(true));
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(0, lock.getCount());
+    }
+
+    /**
+     * Test that a more urgent caller joining a queued request shares its response
+     * @throws Exception
+     */
+    @Test
+    public void testHigherPriorityJoins() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(2);
+        final MediaResponse[] results = new MediaResponse[2];
+        final Priority[] priorities = {Priority.PREFETCH, Priority.INTERACTIVE};
+
+        for (int i = 0; i < results.length; i++) {
+            final int index = i;
+            imp.withPriority(priorities[i]).gifById("darAMUceRAs0w", new CompletionHandler<MediaResponse>() {
+                @Override
+                public void onComplete(MediaResponse result, Throwable e) {
+                    Assert.assertNull(e);
+                    Assert.assertNotNull(result);
+                    results[index] = result;
+                    lock.countDown();
+                }
+            });
+        }
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(0, lock.getCount());
+        Assert.assertSame(results[0], results[1]);
+    }
+
+    /**
+     * Test that requests are sent separately when coalescing is disabled
+     * @throws Exception
+     */
+    @Test
+    public void testDisabled() throws Exception {
+        imp.setRequestCoalescing(false);
+        final CountDownLatch lock = new CountDownLatch(2);
+        final MediaResponse[] results = new MediaResponse[2];
+
+        for (int i = 0; i < results.length; i++) {
+            final int index = i;
+            imp.gifById("darAMUceRAs0w", new CompletionHandler<MediaResponse>() {
+                @Override
+                public void onComplete(MediaResponse result, Throwable e) {
+                    Assert.assertNull(e);
+                    Assert.assertNotNull(result);
+                    results[index] = result;
+                    lock.countDown();
+                }
+            });
+        }
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(0, lock.getCount());
+        Assert.assertNotSame(results[0], results[1]);
+    }
+}
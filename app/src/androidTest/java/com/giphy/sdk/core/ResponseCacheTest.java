@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core;
+
+import android.support.test.InstrumentationRegistry;
+
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.giphy.sdk.core.models.enums.RenditionType;
+import com.giphy.sdk.core.network.api.CompletionHandler;
+import com.giphy.sdk.core.network.api.Constants;
+import com.giphy.sdk.core.network.api.GPHApiClient;
+import com.giphy.sdk.core.network.cache.CacheControl;
+import com.giphy.sdk.core.network.cache.CachedResponse;
+import com.giphy.sdk.core.network.cache.DefaultResponseCache;
+import com.giphy.sdk.core.network.engine.DefaultNetworkSession;
+import com.giphy.sdk.core.network.engine.RequestKeys;
+import com.giphy.sdk.core.network.response.ListMediaResponse;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ResponseCacheTest {
+    GPHApiClient imp;
+    DefaultNetworkSession session;
+    DefaultResponseCache cache;
+    File cacheDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDirectory = new File(InstrumentationRegistry.getTargetContext().getCacheDir(), "giphy-test");
+        cache = new DefaultResponseCache(1024 * 1024, cacheDirectory, 4 * 1024 * 1024);
+        cache.evictAll();
+
+        session = new DefaultNetworkSession();
+        session.setResponseCache(cache);
+        imp = new GPHApiClient("dc6zaTOxFJmzC", session);
+    }
+
+    /**
+     * Test if the second identical request is served from memory
+     * @throws Exception
+     */
+    @Test
+    public void testMemoryHit() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        imp.trending(MediaType.gif, 10, 0, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(final ListMediaResponse result1, Throwable e) {
+                Assert.assertNull(e);
+                Assert.assertNotNull(result1);
+
+                imp.trending(MediaType.gif, 10, 0, null, new CompletionHandler<ListMediaResponse>() {
+                    @Override
+                    public void onComplete(ListMediaResponse result2, Throwable e) {
+                        Assert.assertNull(e);
+                        Assert.assertTrue(result1 == result2);
+                        lock.countDown();
+                    }
+                });
+            }
+        });
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Test if a response is served from disk by a new cache instance
+     * @throws Exception
+     */
+    @Test
+    public void testDiskHit() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        imp.trending(MediaType.gif, 10, 0, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(ListMediaResponse result, Throwable e) {
+                Assert.assertNull(e);
+                Assert.assertNotNull(result);
+
+                final CachedResponse<ListMediaResponse> entry = new DefaultResponseCache(1024 * 1024, cacheDirectory, 4 * 1024 * 1024)
+                        .get(String.format(Constants.Paths.TRENDING, "gifs"), findKey(), ListMediaResponse.class,
+                                DefaultNetworkSession.GSON_INSTANCE);
+                Assert.assertNotNull(entry);
+                final ListMediaResponse cached = entry.getResponse();
+                Assert.assertEquals(result.getData().size(), cached.getData().size());
+                Assert.assertEquals(result.getData().get(0).getId(), cached.getData().get(0).getId());
+                lock.countDown();
+            }
+        });
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Test that a response served from disk only holds the renditions decoded by the session
+     * @throws Exception
+     */
+    @Test
+    public void testDiskHitDecodedRenditions() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        imp.trending(MediaType.gif, 10, 0, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(ListMediaResponse result, Throwable e) {
+                Assert.assertNull(e);
+                Assert.assertNotNull(result.getData().get(0).getImages().getOriginal());
+
+                final DefaultNetworkSession session = new DefaultNetworkSession();
+                session.setResponseCache(new DefaultResponseCache(1024 * 1024, cacheDirectory, 4 * 1024 * 1024));
+                session.setDecodedRenditions(EnumSet.of(RenditionType.fixedHeight));
+                new GPHApiClient("dc6zaTOxFJmzC", session).trending(MediaType.gif, 10, 0, null,
+                        new CompletionHandler<ListMediaResponse>() {
+                    @Override
+                    public void onComplete(ListMediaResponse cached, Throwable e) {
+                        Assert.assertNull(e);
+                        Assert.assertNotNull(cached.getData().get(0).getImages().getFixedHeight());
+                        Assert.assertNull(cached.getData().get(0).getImages().getOriginal());
+                        lock.countDown();
+                    }
+                });
+            }
+        });
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(0, lock.getCount());
+    }
+
+    /**
+     * Test that a cached response is decoded again when the decoded renditions change
+     * @throws Exception
+     */
+    @Test
+    public void testMemoryHitDecodedRenditions() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        imp.trending(MediaType.gif, 10, 0, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(final ListMediaResponse result1, Throwable e) {
+                Assert.assertNull(e);
+                Assert.assertNotNull(result1.getData().get(0).getImages().getOriginal());
+
+                session.setDecodedRenditions(EnumSet.of(RenditionType.fixedHeight));
+                imp.trending(MediaType.gif, 10, 0, null, new CompletionHandler<ListMediaResponse>() {
+                    @Override
+                    public void onComplete(ListMediaResponse result2, Throwable e) {
+                        Assert.assertNull(e);
+                        Assert.assertNotNull(result2.getData().get(0).getImages().getFixedHeight());
+                        Assert.assertNull(result2.getData().get(0).getImages().getOriginal());
+
+                        session.setDecodedRenditions(null);
+                        imp.trending(MediaType.gif, 10, 0, null, new CompletionHandler<ListMediaResponse>() {
+                            @Override
+                            public void onComplete(ListMediaResponse result3, Throwable e) {
+                                Assert.assertNull(e);
+                                Assert.assertNotNull(result3.getData().get(0).getImages().getOriginal());
+                                lock.countDown();
+                            }
+                        });
+                    }
+                });
+            }
+        });
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(0, lock.getCount());
+    }
+
+    /**
+     * Test that random gifs are never cached
+     * @throws Exception
+     */
+    @Test
+    public void testRandomNotCached() throws Exception {
+        Assert.assertNull(cache.edit(String.format(Constants.Paths.RANDOM, "gifs"), "random", CacheControl.NONE,
+                DefaultNetworkSession.GSON_INSTANCE));
+    }
+
+    /**
+     * Test that responses sent with no-store are not cached
+     * @throws Exception
+     */
+    @Test
+    public void testNoStoreNotCached() throws Exception {
+        Assert.assertNull(cache.edit(String.format(Constants.Paths.TRENDING, "gifs"), "trending",
+                CacheControl.parse("no-store", null, null), DefaultNetworkSession.GSON_INSTANCE));
+    }
+
+    /**
+     * Test that the caching headers are parsed
+     * @throws Exception
+     */
+    @Test
+    public void testCacheControl() throws Exception {
+        final CacheControl cacheControl = CacheControl.parse("public, max-age=60, stale-while-revalidate=30",
+                "\"abc\"", "Wed, 21 Oct 2015 07:28:00 GMT");
+        Assert.assertEquals(60 * 1000L, cacheControl.getMaxAgeMs());
+        Assert.assertEquals(30 * 1000L, cacheControl.getStaleWhileRevalidateMs());
+        Assert.assertEquals("\"abc\"", cacheControl.getEtag());
+        Assert.assertTrue(cacheControl.hasValidators());
+        Assert.assertFalse(cacheControl.isNoCache());
+
+        final CacheControl updated = cacheControl.update(CacheControl.parse("max-age=10", null, null));
+        Assert.assertEquals(10 * 1000L, updated.getMaxAgeMs());
+        Assert.assertEquals("\"abc\"", updated.getEtag());
+    }
+
+    /**
+     * Test that params holding '&' or '=' don't get the key of other params
+     * @throws Exception
+     */
+    @Test
+    public void testKeyEscaping() throws Exception {
+        final Map<String, String> injected = new HashMap<>();
+        injected.put("q", "cat&rating=g");
+        final Map<String, String> separate = new HashMap<>();
+        separate.put("q", "cat");
+        separate.put("rating", "g");
+        final String path = String.format(Constants.Paths.SEARCH, "gifs");
+        Assert.assertFalse(RequestKeys.create(path, injected).equals(RequestKeys.create(path, separate)));
+
+        final Map<String, String> reordered = new HashMap<>();
+        reordered.put("rating", "g");
+        reordered.put("q", "cat");
+        Assert.assertEquals(RequestKeys.create(path, separate), RequestKeys.create(path, reordered));
+    }
+
+    private String findKey() {
+        final Map<String, String> params = new HashMap<>();
+        params.put(GPHApiClient.API_KEY, imp.getApiKey());
+        params.put("limit", "10");
+        params.put("offset", "0");
+        return RequestKeys.create(String.format(Constants.Paths.TRENDING, "gifs"), params);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core;
+
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.giphy.sdk.core.network.api.CompletionHandler;
+import com.giphy.sdk.core.network.api.GPHApiClient;
+import com.giphy.sdk.core.network.engine.DefaultNetworkSession;
+import com.giphy.sdk.core.network.engine.RetryBudget;
+import com.giphy.sdk.core.network.engine.RetryPolicy;
+import com.giphy.sdk.core.network.response.ListMediaResponse;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RetryPolicyTest {
+    GPHApiClient imp;
+    RetryPolicy retryPolicy;
+
+    @Before
+    public void setUp() throws Exception {
+        retryPolicy = new RetryPolicy(3, 100, 1000, new RetryBudget(10, 0.1f));
+
+        final DefaultNetworkSession session = new DefaultNetworkSession();
+        session.setRetryPolicy(retryPolicy);
+        imp = new GPHApiClient("dc6zaTOxFJmzC", session);
+    }
+
+    /**
+     * Test that only transient server errors are retried
+     * @throws Exception
+     */
+    @Test
+    public void testRetryableStatus() throws Exception {
+        Assert.assertTrue(RetryPolicy.isRetryableStatus(503));
+        Assert.assertTrue(RetryPolicy.isRetryableStatus(429));
+        Assert.assertFalse(RetryPolicy.isRetryableStatus(400));
+        Assert.assertFalse(RetryPolicy.isRetryableStatus(404));
+    }
+
+    /**
+     * Test that successful requests keep the retry budget full
+     * @throws Exception
+     */
+    @Test
+    public void testBudgetAfterSuccess() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        imp.trending(MediaType.gif, 10, 0, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(ListMediaResponse result, Throwable e) {
+                Assert.assertNull(e);
+                Assert.assertNotNull(result);
+                Assert.assertEquals(10f, retryPolicy.getRetryBudget().getTokens());
+                lock.countDown();
+            }
+        });
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+    }
+}
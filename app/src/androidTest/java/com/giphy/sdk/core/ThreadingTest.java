@@ -17,17 +17,26 @@ import com.giphy.sdk.core.network.api.CompletionHandler;
 import com.giphy.sdk.core.network.api.GPHApiClient;
 import com.giphy.sdk.core.network.engine.DefaultNetworkSession;
 import com.giphy.sdk.core.network.response.MediaResponse;
+import com.giphy.sdk.core.threading.AdmissionPolicy;
 import com.giphy.sdk.core.threading.ApiTask;
+import com.giphy.sdk.core.threading.DeadlineExceededException;
+import com.giphy.sdk.core.threading.Priority;
+import com.giphy.sdk.core.threading.PriorityThreadPoolExecutor;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 public class ThreadingTest {
@@ -242,4 +251,120 @@ public class ThreadingTest {
         // If code reaches here, force fail
         Assert.assertTrue(false);
     }
+
+    @Test
+    public void testPriority() throws Exception {
+        final PriorityThreadPoolExecutor executor = new PriorityThreadPoolExecutor(1, 1, TimeUnit.SECONDS);
+        final Executor completionExecutor = Executors.newSingleThreadExecutor();
+        final List<Priority> order = Collections.synchronizedList(new ArrayList<Priority>());
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch lock = new CountDownLatch(3);
+
+        // Keep the single thread busy so that the following tasks are queued
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    gate.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+
+        for (final Priority priority : new Priority[]{Priority.BACKGROUND, Priority.PREFETCH, Priority.INTERACTIVE}) {
+            new ApiTask<String>(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    order.add(priority);
+                    return "test";
+                }
+            }, executor, completionExecutor).executeAsyncTask(new CompletionHandler<String>() {
+                @Override
+                public void onComplete(String result, Throwable e) {
+                    lock.countDown();
+                }
+            }, priority);
+        }
+        gate.countDown();
+
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(Arrays.asList(Priority.INTERACTIVE, Priority.PREFETCH, Priority.BACKGROUND), order);
+    }
+
+    @Test
+    public void testAdmissionPolicy() throws Exception {
+        final PriorityThreadPoolExecutor executor = new PriorityThreadPoolExecutor(1, 1, TimeUnit.SECONDS);
+        executor.setAdmissionPolicy(new AdmissionPolicy(1, AdmissionPolicy.ShedStrategy.DROP_OLDEST_SAME_KEY));
+        final Executor completionExecutor = Executors.newSingleThreadExecutor();
+        final List<String> results = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch lock = new CountDownLatch(3);
+
+        // Keep the single thread busy so that the following tasks are queued
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    gate.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+
+        for (final String page : new String[]{"page 1", "page 2", "other"}) {
+            new ApiTask<String>(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return page;
+                }
+            }, executor, completionExecutor).executeAsyncTask(new CompletionHandler<String>() {
+                @Override
+                public void onComplete(String result, Throwable e) {
+                    results.add(e instanceof RejectedExecutionException ? page + " shed" : result);
+                    lock.countDown();
+                }
+            }, Priority.PREFETCH, page.startsWith("page") ? "feed" : null);
+        }
+        Assert.assertEquals(1, executor.getQueueDepth());
+        gate.countDown();
+
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(results.contains("page 1 shed"));
+        Assert.assertTrue(results.contains("page 2"));
+        Assert.assertTrue(results.contains("other shed"));
+    }
+
+    @Test
+    public void testDeadlineCoversQueueing() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        // Hold the only thread past the deadline of the next task
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+
+        new ApiTask<String>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                Assert.fail("Task should not run after its deadline");
+                return "test";
+            }
+        }, executor, executor).setDeadline(100, TimeUnit.MILLISECONDS).executeAsyncTask(new CompletionHandler<String>() {
+            @Override
+            public void onComplete(String result, Throwable e) {
+                Assert.assertNull(result);
+                Assert.assertTrue(e instanceof DeadlineExceededException);
+                lock.countDown();
+            }
+        });
+
+        Assert.assertTrue(lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS));
+    }
 }
@@ -11,6 +11,7 @@ package com.giphy.sdk.core;
 
 import android.os.Parcel;
 
+import com.giphy.sdk.core.models.Image;
 import com.giphy.sdk.core.models.Media;
 import com.giphy.sdk.core.models.enums.MediaType;
 import com.giphy.sdk.core.models.enums.RatingType;
@@ -18,6 +19,7 @@ import com.giphy.sdk.core.models.enums.RenditionType;
 import com.giphy.sdk.core.network.api.CompletionHandler;
 import com.giphy.sdk.core.network.api.GPHApi;
 import com.giphy.sdk.core.network.api.GPHApiClient;
+import com.giphy.sdk.core.network.engine.DefaultNetworkSession;
 import com.giphy.sdk.core.network.response.ListMediaResponse;
 import com.google.gson.Gson;
 
@@ -26,6 +28,7 @@ import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.EnumSet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -355,4 +358,95 @@ public class TrendingTest {
         });
         lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that only the requested renditions are decoded
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testDecodedRenditions() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        final GPHApiClient client = new GPHApiClient("dc6zaTOxFJmzC",
+                EnumSet.of(RenditionType.fixedWidth, RenditionType.original));
+        client.trending(MediaType.gif, 10, null, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(ListMediaResponse result, Throwable e) {
+                Assert.assertNull(e);
+                Assert.assertNotNull(result);
+
+                for (Media media : result.getData()) {
+                    Assert.assertNotNull(media.getImages().getFixedWidth());
+                    Assert.assertEquals(media.getId(), media.getImages().getFixedWidth().getMediaId());
+                    Assert.assertTrue(media.getImages().getOriginal().getRenditionType() == RenditionType.original);
+                    Assert.assertNull(media.getImages().getFixedHeight());
+                    Assert.assertNull(media.getImages().getPreview());
+                }
+                lock.countDown();
+            }
+        });
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Test that the renditions decoded on demand are tagged and survive parceling
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testLazyImages() throws Exception {
+        final CountDownLatch lock = new CountDownLatch(1);
+
+        final DefaultNetworkSession session = new DefaultNetworkSession();
+        session.setLazyImages(true);
+        final GPHApiClient client = new GPHApiClient("dc6zaTOxFJmzC", session);
+        client.trending(MediaType.gif, 10, null, null, new CompletionHandler<ListMediaResponse>() {
+            @Override
+            public void onComplete(ListMediaResponse result, Throwable e) {
+                Assert.assertNull(e);
+                Assert.assertNotNull(result);
+
+                for (Media media : result.getData()) {
+                    final Image fixedWidth = media.getImages().getFixedWidth();
+                    Assert.assertNotNull(fixedWidth);
+                    Assert.assertTrue(fixedWidth == media.getImages().getFixedWidth());
+                    Assert.assertEquals(media.getId(), fixedWidth.getMediaId());
+                    Assert.assertTrue(fixedWidth.getRenditionType() == RenditionType.fixedWidth);
+
+                    Parcel parcel = Parcel.obtain();
+                    media.writeToParcel(parcel, 0);
+                    parcel.setDataPosition(0);
+                    Media parcelMedia = Media.CREATOR.createFromParcel(parcel);
+                    Assert.assertEquals(media.getImages().getOriginal().getGifUrl(),
+                            parcelMedia.getImages().getOriginal().getGifUrl());
+                }
+                lock.countDown();
+            }
+        });
+        lock.await(Utils.SMALL_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Test that the URLs stored in compact form are rebuilt as they were received
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testImageUrls() throws Exception {
+        final String cdnUrl = "https://media2.giphy.com/media/abc123/200w.gif";
+        final String otherUrl = "https://media2.giphy.com/media/abc123/200w.mp4?cid=1234";
+        final Image image = DefaultNetworkSession.GSON_INSTANCE.fromJson("{\"url\":\"" + cdnUrl
+                + "\",\"mp4\":\"" + otherUrl + "\",\"webp\":null}", Image.class);
+        Assert.assertEquals(cdnUrl, image.getGifUrl());
+        Assert.assertEquals(otherUrl, image.getMp4Url());
+        Assert.assertNull(image.getWebPUrl());
+
+        Parcel parcel = Parcel.obtain();
+        image.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        final Image parcelImage = Image.CREATOR.createFromParcel(parcel);
+        Assert.assertEquals(cdnUrl, parcelImage.getGifUrl());
+        Assert.assertEquals(otherUrl, parcelImage.getMp4Url());
+    }
+}
@@ -16,8 +16,8 @@ import android.support.annotation.VisibleForTesting;
 import java.util.List;
 
 public class BottleData implements Parcelable {
-    private String tid;
-    private List<String> tags;
+    String tid;
+    List<String> tags;
 
     public BottleData() {}
 
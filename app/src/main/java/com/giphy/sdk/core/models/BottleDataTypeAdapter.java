@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming json adapter for {@link BottleData}, used instead of reflective binding.
+ */
+final class BottleDataTypeAdapter extends TypeAdapter<BottleData> {
+    @Override
+    public void write(JsonWriter out, BottleData value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("tid").value(value.tid);
+        out.name("tags");
+        JsonValues.writeStringList(out, value.tags);
+        out.endObject();
+    }
+
+    @Override
+    public BottleData read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final BottleData bottleData = new BottleData();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "tid":
+                    bottleData.tid = JsonValues.nextString(in);
+                    break;
+                case "tags":
+                    bottleData.tags = JsonValues.nextStringList(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return bottleData;
+    }
+}
@@ -17,13 +17,13 @@ import com.google.gson.annotations.SerializedName;
 import java.util.List;
 
 public class Category implements Parcelable {
-    private String name;
+    String name;
     @SerializedName("name_encoded")
-    private String nameEncoded;
-    private Media gif;
+    String nameEncoded;
+    Media gif;
     @SerializedName("subcategories")
-    private List<Category> subCategories;
-    private String encodedPath;
+    List<Category> subCategories;
+    String encodedPath;
 
     public Category() {}
 
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streaming json adapter for {@link Category}, used instead of reflective binding.
+ */
+final class CategoryTypeAdapter extends TypeAdapter<Category> {
+    private final TypeAdapter<Media> mediaAdapter;
+    private final TypeAdapter<List<Category>> categoryListAdapter;
+
+    CategoryTypeAdapter(Gson gson) {
+        mediaAdapter = gson.getAdapter(Media.class);
+        categoryListAdapter = gson.getAdapter(new TypeToken<List<Category>>() {});
+    }
+
+    @Override
+    public void write(JsonWriter out, Category value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(value.name);
+        out.name("name_encoded").value(value.nameEncoded);
+        out.name("gif");
+        mediaAdapter.write(out, value.gif);
+        out.name("subcategories");
+        categoryListAdapter.write(out, value.subCategories);
+        out.name("encodedPath").value(value.encodedPath);
+        out.endObject();
+    }
+
+    @Override
+    public Category read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final Category category = new Category();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    category.name = JsonValues.nextString(in);
+                    break;
+                case "name_encoded":
+                    category.nameEncoded = JsonValues.nextString(in);
+                    break;
+                case "gif":
+                    category.gif = mediaAdapter.read(in);
+                    break;
+                case "subcategories":
+                    category.subCategories = categoryListAdapter.read(in);
+                    break;
+                case "encodedPath":
+                    category.encodedPath = JsonValues.nextString(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return category;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.models;
+
+/**
+ * Compact form of the media URLs served by the Giphy CDN, which all follow the
+ * https://mediaN.giphy.com/media/&lt;mediaId&gt;/&lt;rendition&gt;.&lt;extension&gt; pattern. A URL
+ * is stored as a code made of the index of its host, of its file name and of its extension, next
+ * to its media id, and is rebuilt when it's requested.
+ */
+final class CdnUrls {
+    private static final String[] HOSTS = {
+            "https://media.giphy.com/media/",
+            "https://media0.giphy.com/media/",
+            "https://media1.giphy.com/media/",
+            "https://media2.giphy.com/media/",
+            "https://media3.giphy.com/media/",
+            "https://media4.giphy.com/media/",
+            "https://i.giphy.com/media/"
+    };
+    // File names of the renditions, without their extension
+    private static final String[] FILE_NAMES = {
+            "giphy", "giphy_s", "giphy-preview", "giphy-loop",
+            "200", "200_s", "200_d", "200w", "200w_s", "200w_d",
+            "100", "100_s", "100w", "100w_s",
+            "giphy-downsized", "giphy-downsized_s", "giphy-downsized-small", "giphy-downsized-medium",
+            "giphy-downsized-large", "480w_s"
+    };
+    private static final String[] EXTENSIONS = {"gif", "mp4", "webp", "jpg"};
+
+    private CdnUrls() {}
+
+    /**
+     * @return the media id of the URL, or null if it doesn't follow the pattern
+     */
+    static String mediaId(String url) {
+        final int host = hostIndex(url);
+        if (host < 0) {
+            return null;
+        }
+        final int slash = url.indexOf('/', HOSTS[host].length());
+        return slash > HOSTS[host].length() ? url.substring(HOSTS[host].length(), slash) : null;
+    }
+
+    /**
+     * @param mediaId the media id the URL must have
+     * @return the code of the URL, or 0 if it doesn't follow the pattern or has another media id
+     */
+    static int encode(String url, String mediaId) {
+        final int host = hostIndex(url);
+        if (host < 0 || mediaId == null) {
+            return 0;
+        }
+        final int idStart = HOSTS[host].length();
+        final int nameStart = idStart + mediaId.length() + 1;
+        if (url.length() <= nameStart || !url.startsWith(mediaId, idStart) || url.charAt(nameStart - 1) != '/') {
+            return 0;
+        }
+        final int dot = url.lastIndexOf('.');
+        if (dot < nameStart) {
+            return 0;
+        }
+        final int fileName = indexOf(FILE_NAMES, url, nameStart, dot);
+        final int extension = indexOf(EXTENSIONS, url, dot + 1, url.length());
+        if (fileName < 0 || extension < 0) {
+            return 0;
+        }
+        return (host + 1) << 16 | fileName << 4 | extension;
+    }
+
+    static String decode(int code, String mediaId) {
+        return HOSTS[(code >> 16) - 1] + mediaId + '/' + FILE_NAMES[(code >> 4) & 0xfff] + '.' + EXTENSIONS[code & 0xf];
+    }
+
+    private static int hostIndex(String url) {
+        for (int i = 0; i < HOSTS.length; i++) {
+            if (url.startsWith(HOSTS[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(String[] values, String url, int start, int end) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].length() == end - start && url.startsWith(values[i], start)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -17,38 +17,46 @@ import com.google.gson.annotations.SerializedName;
 
 public class Image implements Parcelable {
     @SerializedName("url")
-    private String gifUrl;
-    private int width;
-    private int height;
+    String gifUrl;
+    int width;
+    int height;
     @SerializedName("size")
-    private int gifSize;
-    private int frames;
+    int gifSize;
+    int frames;
     @SerializedName("mp4")
-    private String mp4Url;
+    String mp4Url;
     @SerializedName("mp4_size")
-    private int mp4Size;
+    int mp4Size;
     @SerializedName("webp")
-    private String webPUrl;
+    String webPUrl;
     @SerializedName("webp_size")
-    private int webPSize;
+    int webPSize;
 
-    private String mediaId;
-    private RenditionType renditionType;
+    String mediaId;
+    RenditionType renditionType;
+
+    // URLs of the Giphy CDN are kept as codes instead of strings, see CdnUrls. The urls above are
+    // null when they're encoded.
+    int gifUrlCode;
+    int mp4UrlCode;
+    int webPUrlCode;
+    // Media id shared by the encoded URLs
+    String urlMediaId;
 
     public Image() {
     }
 
     public Image(Parcel in) {
-        gifUrl = in.readString();
+        setGifUrl(in.readString());
         width = in.readInt();
         height = in.readInt();
         gifSize = in.readInt();
         frames = in.readInt();
-        mp4Url = in.readString();
+        setMp4Url(in.readString());
         mp4Size = in.readInt();
-        webPUrl = in.readString();
+        setWebPUrl(in.readString());
         webPSize = in.readInt();
-        mediaId = in.readString();
+        setMediaId(in.readString());
         final int renditionOrdinal = in.readInt();
         renditionType = renditionOrdinal != -1 ? RenditionType.values()[renditionOrdinal] : null;
     }
@@ -69,11 +77,12 @@ public class Image implements Parcelable {
      * @return ID of the Represented Object
      */
     public String getGifUrl() {
-        return gifUrl;
+        return gifUrlCode != 0 ? CdnUrls.decode(gifUrlCode, urlMediaId) : gifUrl;
     }
 
     void setGifUrl(String gifUrl) {
-        this.gifUrl = gifUrl;
+        gifUrlCode = encodeUrl(gifUrl);
+        this.gifUrl = gifUrlCode == 0 ? gifUrl : null;
     }
 
     /**
@@ -120,11 +129,12 @@ public class Image implements Parcelable {
      * @return URL of the mp4 file
      */
     public String getMp4Url() {
-        return mp4Url;
+        return mp4UrlCode != 0 ? CdnUrls.decode(mp4UrlCode, urlMediaId) : mp4Url;
     }
 
     void setMp4Url(String mp4Url) {
-        this.mp4Url = mp4Url;
+        mp4UrlCode = encodeUrl(mp4Url);
+        this.mp4Url = mp4UrlCode == 0 ? mp4Url : null;
     }
 
     /**
@@ -138,7 +148,25 @@ public class Image implements Parcelable {
      * @return URL of the webP file
      */
     public String getWebPUrl() {
-        return webPUrl;
+        return webPUrlCode != 0 ? CdnUrls.decode(webPUrlCode, urlMediaId) : webPUrl;
+    }
+
+    void setWebPUrl(String webPUrl) {
+        webPUrlCode = encodeUrl(webPUrl);
+        this.webPUrl = webPUrlCode == 0 ? webPUrl : null;
+    }
+
+    /**
+     * @return the code of the URL, or 0 if it's kept as a string
+     */
+    private int encodeUrl(String url) {
+        if (url == null) {
+            return 0;
+        }
+        if (urlMediaId == null) {
+            urlMediaId = CdnUrls.mediaId(url);
+        }
+        return CdnUrls.encode(url, urlMediaId);
     }
 
     /**
@@ -157,6 +185,10 @@ public class Image implements Parcelable {
 
     void setMediaId(String mediaId) {
         this.mediaId = mediaId;
+        // The encoded URLs share the string of the media id
+        if (mediaId != null && mediaId.equals(urlMediaId)) {
+            urlMediaId = mediaId;
+        }
     }
 
     /**
@@ -177,14 +209,14 @@ public class Image implements Parcelable {
 
     @Override
     public void writeToParcel(Parcel parcel, int i) {
-        parcel.writeString(gifUrl);
+        parcel.writeString(getGifUrl());
         parcel.writeInt(width);
         parcel.writeInt(height);
         parcel.writeInt(gifSize);
         parcel.writeInt(frames);
-        parcel.writeString(mp4Url);
+        parcel.writeString(getMp4Url());
         parcel.writeInt(mp4Size);
-        parcel.writeString(webPUrl);
+        parcel.writeString(getWebPUrl());
         parcel.writeInt(webPSize);
         parcel.writeString(mediaId);
         parcel.writeInt(renditionType != null ? renditionType.ordinal() : -1);
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.giphy.sdk.core.models.enums.RenditionType;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming json adapter for {@link Image}, used instead of reflective binding.
+ */
+final class ImageTypeAdapter extends TypeAdapter<Image> {
+    private final TypeAdapter<RenditionType> renditionTypeAdapter;
+
+    ImageTypeAdapter(Gson gson) {
+        renditionTypeAdapter = gson.getAdapter(RenditionType.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, Image value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("url").value(value.getGifUrl());
+        out.name("width").value(value.width);
+        out.name("height").value(value.height);
+        out.name("size").value(value.gifSize);
+        out.name("frames").value(value.frames);
+        out.name("mp4").value(value.getMp4Url());
+        out.name("mp4_size").value(value.mp4Size);
+        out.name("webp").value(value.getWebPUrl());
+        out.name("webp_size").value(value.webPSize);
+        out.name("mediaId").value(value.mediaId);
+        out.name("renditionType");
+        renditionTypeAdapter.write(out, value.renditionType);
+        out.endObject();
+    }
+
+    @Override
+    public Image read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final Image image = new Image();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "url":
+                    image.setGifUrl(JsonValues.nextString(in));
+                    break;
+                case "width":
+                    image.width = JsonValues.nextInt(in);
+                    break;
+                case "height":
+                    image.height = JsonValues.nextInt(in);
+                    break;
+                case "size":
+                    image.gifSize = JsonValues.nextInt(in);
+                    break;
+                case "frames":
+                    image.frames = JsonValues.nextInt(in);
+                    break;
+                case "mp4":
+                    image.setMp4Url(JsonValues.nextString(in));
+                    break;
+                case "mp4_size":
+                    image.mp4Size = JsonValues.nextInt(in);
+                    break;
+                case "webp":
+                    image.setWebPUrl(JsonValues.nextString(in));
+                    break;
+                case "webp_size":
+                    image.webPSize = JsonValues.nextInt(in);
+                    break;
+                case "mediaId":
+                    image.setMediaId(JsonValues.nextString(in));
+                    break;
+                case "renditionType":
+                    image.renditionType = renditionTypeAdapter.read(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return image;
+    }
+}
@@ -17,41 +17,43 @@ import com.google.gson.annotations.SerializedName;
 
 public class Images implements Parcelable {
     @SerializedName("fixed_height")
-    private Image fixedHeight;
+    Image fixedHeight;
     @SerializedName("fixed_height_still")
-    private Image fixedHeightStill;
+    Image fixedHeightStill;
     @SerializedName("fixed_height_downsampled")
-    private Image fixedHeightDownsampled;
+    Image fixedHeightDownsampled;
     @SerializedName("fixed_width")
-    private Image fixedWidth;
+    Image fixedWidth;
     @SerializedName("fixed_width_still")
-    private Image fixedWidthStill;
+    Image fixedWidthStill;
     @SerializedName("fixed_width_downsampled")
-    private Image fixedWidthDownsampled;
+    Image fixedWidthDownsampled;
     @SerializedName("fixed_height_small")
-    private Image fixedHeightSmall;
+    Image fixedHeightSmall;
     @SerializedName("fixed_height_small_still")
-    private Image fixedHeightSmallStill;
+    Image fixedHeightSmallStill;
     @SerializedName("fixed_width_small")
-    private Image fixedWidthSmall;
+    Image fixedWidthSmall;
     @SerializedName("fixed_width_small_still")
-    private Image fixedWidthSmallStill;
-    private Image downsized;
+    Image fixedWidthSmallStill;
+    Image downsized;
     @SerializedName("downsized_still")
-    private Image downsizedStill;
+    Image downsizedStill;
     @SerializedName("downsized_large")
-    private Image downsizedLarge;
+    Image downsizedLarge;
     @SerializedName("downsized_medium")
-    private Image downsizedMedium;
-    private Image original;
+    Image downsizedMedium;
+    Image original;
     @SerializedName("original_still")
-    private Image originalStill;
-    private Image looping;
-    private Image preview;
+    Image originalStill;
+    Image looping;
+    Image preview;
     @SerializedName("downsized_small")
-    private Image downsizedSmall;
+    Image downsizedSmall;
     
-    private String mediaId;
+    String mediaId;
+    // Set when the renditions are decoded on demand
+    transient LazyRenditions lazyRenditions;
 
     public Images() {}
 
@@ -82,14 +84,14 @@ public class Images implements Parcelable {
      *  Height set to 200px. Good for mobile use
      */
     public Image getFixedHeight() {
-        return fixedHeight;
+        return fixedHeight != null ? fixedHeight : lazy(RenditionType.fixedHeight);
     }
 
     /**
      *  Static preview image for fixed_height
      */
     public Image getFixedHeightStill() {
-        return fixedHeightStill;
+        return fixedHeightStill != null ? fixedHeightStill : lazy(RenditionType.fixedHeightStill);
     }
 
     /**
@@ -97,7 +99,7 @@ public class Images implements Parcelable {
      * Works well for unlimited scroll on mobile and as animated previews. See Giphy.com on mobile web as an example.
      */
     public Image getFixedHeightDownsampled() {
-        return fixedHeightDownsampled;
+        return fixedHeightDownsampled != null ? fixedHeightDownsampled : lazy(RenditionType.fixedHeightDownsampled);
     }
 
     void setFixedHeightDownsampled(Image fixedHeightDownsampled) {
@@ -108,21 +110,21 @@ public class Images implements Parcelable {
      * Width set to 200px. Good for mobile use
      */
     public Image getFixedWidth() {
-        return fixedWidth;
+        return fixedWidth != null ? fixedWidth : lazy(RenditionType.fixedWidth);
     }
 
     /**
      * Static preview image for fixed_width
      */
     public Image getFixedWidthStill() {
-        return fixedWidthStill;
+        return fixedWidthStill != null ? fixedWidthStill : lazy(RenditionType.fixedWidthStill);
     }
 
     /**
      * Width set to 200px. Reduced to 6 frames. Works well for unlimited scroll on mobile and as animated previews.
      */
     public Image getFixedWidthDownsampled() {
-        return fixedWidthDownsampled;
+        return fixedWidthDownsampled != null ? fixedWidthDownsampled : lazy(RenditionType.fixedWidthDownsampled);
     }
 
     void setFixedWidthDownsampled(Image fixedWidthDownsampled) {
@@ -133,7 +135,7 @@ public class Images implements Parcelable {
      * Height set to 100px. Good for mobile keyboards
      */
     public Image getFixedHeightSmall() {
-        return fixedHeightSmall;
+        return fixedHeightSmall != null ? fixedHeightSmall : lazy(RenditionType.fixedHeightSmall);
     }
 
     void setFixedHeightSmall(Image fixedHeightSmall) {
@@ -144,7 +146,7 @@ public class Images implements Parcelable {
      * Static preview image for fixed_height_small
      */
     public Image getFixedHeightSmallStill() {
-        return fixedHeightSmallStill;
+        return fixedHeightSmallStill != null ? fixedHeightSmallStill : lazy(RenditionType.fixedHeightSmallStill);
     }
 
     void setFixedHeightSmallStill(Image fixedHeightSmallStill) {
@@ -155,7 +157,7 @@ public class Images implements Parcelable {
      * Width set to 100px. Good for mobile keyboards
      */
     public Image getFixedWidthSmall() {
-        return fixedWidthSmall;
+        return fixedWidthSmall != null ? fixedWidthSmall : lazy(RenditionType.fixedWidthSmall);
     }
 
     void setFixedWidthSmall(Image fixedWidthSmall) {
@@ -166,7 +168,7 @@ public class Images implements Parcelable {
      * Static preview image for fixed_width_small
      */
     public Image getFixedWidthSmallStill() {
-        return fixedWidthSmallStill;
+        return fixedWidthSmallStill != null ? fixedWidthSmallStill : lazy(RenditionType.fixedWidthSmallStill);
     }
 
     void setFixedWidthSmallStill(Image fixedWidthSmallStill) {
@@ -177,35 +179,35 @@ public class Images implements Parcelable {
      * File size under 2mb
      */
     public Image getDownsized() {
-        return downsized;
+        return downsized != null ? downsized : lazy(RenditionType.downsized);
     }
 
     /**
      * Static preview image for downsized
      */
     public Image getDownsizedStill() {
-        return downsizedStill;
+        return downsizedStill != null ? downsizedStill : lazy(RenditionType.downsizedStill);
     }
 
     /**
      * File size under 8mb
      */
     public Image getDownsizedLarge() {
-        return downsizedLarge;
+        return downsizedLarge != null ? downsizedLarge : lazy(RenditionType.downsizedLarge);
     }
 
     /**
      * File size under 5mb
      */
     public Image getDownsizedMedium() {
-        return downsizedMedium;
+        return downsizedMedium != null ? downsizedMedium : lazy(RenditionType.downsizedMedium);
     }
 
     /**
      * Original file size and file dimensions. Good for desktop use
      */
     public Image getOriginal() {
-        return original;
+        return original != null ? original : lazy(RenditionType.original);
     }
 
     void setOriginal(Image original) {
@@ -216,28 +218,76 @@ public class Images implements Parcelable {
      * Preview image for original
      */
     public Image getOriginalStill() {
-        return originalStill;
+        return originalStill != null ? originalStill : lazy(RenditionType.originalStill);
     }
 
     /**
      * Duration set to loop for 15 seconds. Only recommended for this exact use case
      */
     public Image getLooping() {
-        return looping;
+        return looping != null ? looping : lazy(RenditionType.looping);
     }
 
     /**
      * File size under 50kb. Duration may be truncated to meet file size requirements. Good for thumbnails and previews.
      */
     public Image getPreview() {
-        return preview;
+        return preview != null ? preview : lazy(RenditionType.preview);
     }
 
     /**
      * File size under 200kb
      */
     public Image getDownsizedSmall() {
-        return downsizedSmall;
+        return downsizedSmall != null ? downsizedSmall : lazy(RenditionType.downsizedSmall);
+    }
+
+    /**
+     * @return the image of the given rendition, or null if the media doesn't have it
+     */
+    public Image getImage(RenditionType renditionType) {
+        switch (renditionType) {
+            case original:
+                return getOriginal();
+            case originalStill:
+                return getOriginalStill();
+            case preview:
+                return getPreview();
+            case looping:
+                return getLooping();
+            case fixedHeight:
+                return getFixedHeight();
+            case fixedHeightStill:
+                return getFixedHeightStill();
+            case fixedHeightDownsampled:
+                return getFixedHeightDownsampled();
+            case fixedHeightSmall:
+                return getFixedHeightSmall();
+            case fixedHeightSmallStill:
+                return getFixedHeightSmallStill();
+            case fixedWidth:
+                return getFixedWidth();
+            case fixedWidthStill:
+                return getFixedWidthStill();
+            case fixedWidthDownsampled:
+                return getFixedWidthDownsampled();
+            case fixedWidthSmall:
+                return getFixedWidthSmall();
+            case fixedWidthSmallStill:
+                return getFixedWidthSmallStill();
+            case downsized:
+                return getDownsized();
+            case downsizedSmall:
+                return getDownsizedSmall();
+            case downsizedMedium:
+                return getDownsizedMedium();
+            case downsizedLarge:
+                return getDownsizedLarge();
+            case downsizedStill:
+                return getDownsizedStill();
+            default:
+                return null;
+        }
     }
 
     /**
@@ -251,8 +301,13 @@ public class Images implements Parcelable {
         this.mediaId = mediaId;
     }
 
+    private Image lazy(RenditionType renditionType) {
+        return lazyRenditions != null ? lazyRenditions.get(renditionType, mediaId) : null;
+    }
+
     /**
-     * Passed down the rendition type and media id to each image
+     * Passed down the rendition type and media id to each image. The renditions decoded on demand
+     * are tagged when they're decoded.
      */
     void postProcess() {
         if (original != null) {
@@ -352,25 +407,25 @@ public class Images implements Parcelable {
 
     @Override
     public void writeToParcel(Parcel parcel, int i) {
-        parcel.writeParcelable(fixedHeight, i);
-        parcel.writeParcelable(fixedHeightStill, i);
-        parcel.writeParcelable(fixedHeightDownsampled, i);
-        parcel.writeParcelable(fixedWidth, i);
-        parcel.writeParcelable(fixedWidthStill, i);
-        parcel.writeParcelable(fixedWidthDownsampled, i);
-        parcel.writeParcelable(fixedHeightSmall, i);
-        parcel.writeParcelable(fixedHeightSmallStill, i);
-        parcel.writeParcelable(fixedWidthSmall, i);
-        parcel.writeParcelable(fixedWidthSmallStill, i);
-        parcel.writeParcelable(downsized, i);
-        parcel.writeParcelable(downsizedStill, i);
-        parcel.writeParcelable(downsizedLarge, i);
-        parcel.writeParcelable(downsizedMedium, i);
-        parcel.writeParcelable(original, i);
-        parcel.writeParcelable(originalStill, i);
-        parcel.writeParcelable(looping, i);
-        parcel.writeParcelable(preview, i);
-        parcel.writeParcelable(downsizedSmall, i);
+        parcel.writeParcelable(getFixedHeight(), i);
+        parcel.writeParcelable(getFixedHeightStill(), i);
+        parcel.writeParcelable(getFixedHeightDownsampled(), i);
+        parcel.writeParcelable(getFixedWidth(), i);
+        parcel.writeParcelable(getFixedWidthStill(), i);
+        parcel.writeParcelable(getFixedWidthDownsampled(), i);
+        parcel.writeParcelable(getFixedHeightSmall(), i);
+        parcel.writeParcelable(getFixedHeightSmallStill(), i);
+        parcel.writeParcelable(getFixedWidthSmall(), i);
+        parcel.writeParcelable(getFixedWidthSmallStill(), i);
+        parcel.writeParcelable(getDownsized(), i);
+        parcel.writeParcelable(getDownsizedStill(), i);
+        parcel.writeParcelable(getDownsizedLarge(), i);
+        parcel.writeParcelable(getDownsizedMedium(), i);
+        parcel.writeParcelable(getOriginal(), i);
+        parcel.writeParcelable(getOriginalStill(), i);
+        parcel.writeParcelable(getLooping(), i);
+        parcel.writeParcelable(getPreview(), i);
+        parcel.writeParcelable(getDownsizedSmall(), i);
         parcel.writeString(mediaId);
     }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.giphy.sdk.core.models.enums.RenditionType;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Streaming json adapter for {@link Images}, used instead of reflective binding.
+ */
+final class ImagesTypeAdapter extends TypeAdapter<Images> {
+    private final TypeAdapter<Image> imageAdapter;
+    private final Set<RenditionType> renditions;
+    private final boolean lazy;
+
+    /**
+     * @param renditions the renditions to decode, or null for all of them
+     * @param lazy true to keep the json of the renditions and decode each of them on demand
+     */
+    ImagesTypeAdapter(Gson gson, Set<RenditionType> renditions, boolean lazy) {
+        imageAdapter = gson.getAdapter(Image.class);
+        this.renditions = renditions;
+        this.lazy = lazy;
+    }
+
+    @Override
+    public void write(JsonWriter out, Images value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("fixed_height");
+        imageAdapter.write(out, value.getFixedHeight());
+        out.name("fixed_height_still");
+        imageAdapter.write(out, value.getFixedHeightStill());
+        out.name("fixed_height_downsampled");
+        imageAdapter.write(out, value.getFixedHeightDownsampled());
+        out.name("fixed_width");
+        imageAdapter.write(out, value.getFixedWidth());
+        out.name("fixed_width_still");
+        imageAdapter.write(out, value.getFixedWidthStill());
+        out.name("fixed_width_downsampled");
+        imageAdapter.write(out, value.getFixedWidthDownsampled());
+        out.name("fixed_height_small");
+        imageAdapter.write(out, value.getFixedHeightSmall());
+        out.name("fixed_height_small_still");
+        imageAdapter.write(out, value.getFixedHeightSmallStill());
+        out.name("fixed_width_small");
+        imageAdapter.write(out, value.getFixedWidthSmall());
+        out.name("fixed_width_small_still");
+        imageAdapter.write(out, value.getFixedWidthSmallStill());
+        out.name("downsized");
+        imageAdapter.write(out, value.getDownsized());
+        out.name("downsized_still");
+        imageAdapter.write(out, value.getDownsizedStill());
+        out.name("downsized_large");
+        imageAdapter.write(out, value.getDownsizedLarge());
+        out.name("downsized_medium");
+        imageAdapter.write(out, value.getDownsizedMedium());
+        out.name("original");
+        imageAdapter.write(out, value.getOriginal());
+        out.name("original_still");
+        imageAdapter.write(out, value.getOriginalStill());
+        out.name("looping");
+        imageAdapter.write(out, value.getLooping());
+        out.name("preview");
+        imageAdapter.write(out, value.getPreview());
+        out.name("downsized_small");
+        imageAdapter.write(out, value.getDownsizedSmall());
+        out.name("mediaId").value(value.mediaId);
+        out.endObject();
+    }
+
+    @Override
+    public Images read(JsonReader in) throws IOException {
+        return read(in, null);
+    }
+
+    /**
+     * Reads the renditions and tags each of them with its rendition type and the media id as soon
+     * as it's built, so that no second pass over the renditions is needed.
+     * @param mediaId id of the parent media, if already known
+     */
+    Images read(JsonReader in, String mediaId) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final Images images = new Images();
+        images.mediaId = mediaId;
+        final LazyRenditions.Builder lazyRenditions = lazy ? new LazyRenditions.Builder() : null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "fixed_height":
+                    images.fixedHeight = readRendition(in, RenditionType.fixedHeight, mediaId, lazyRenditions);
+                    break;
+                case "fixed_height_still":
+                    images.fixedHeightStill = readRendition(in, RenditionType.fixedHeightStill, mediaId, lazyRenditions);
+                    break;
+                case "fixed_height_downsampled":
+                    images.fixedHeightDownsampled = readRendition(in, RenditionType.fixedHeightDownsampled, mediaId, lazyRenditions);
+                    break;
+                case "fixed_width":
+                    images.fixedWidth = readRendition(in, RenditionType.fixedWidth, mediaId, lazyRenditions);
+                    break;
+                case "fixed_width_still":
+                    images.fixedWidthStill = readRendition(in, RenditionType.fixedWidthStill, mediaId, lazyRenditions);
+                    break;
+                case "fixed_width_downsampled":
+                    images.fixedWidthDownsampled = readRendition(in, RenditionType.fixedWidthDownsampled, mediaId, lazyRenditions);
+                    break;
+                case "fixed_height_small":
+                    images.fixedHeightSmall = readRendition(in, RenditionType.fixedHeightSmall, mediaId, lazyRenditions);
+                    break;
+                case "fixed_height_small_still":
+                    images.fixedHeightSmallStill = readRendition(in, RenditionType.fixedHeightSmallStill, mediaId, lazyRenditions);
+                    break;
+                case "fixed_width_small":
+                    images.fixedWidthSmall = readRendition(in, RenditionType.fixedWidthSmall, mediaId, lazyRenditions);
+                    break;
+                case "fixed_width_small_still":
+                    images.fixedWidthSmallStill = readRendition(in, RenditionType.fixedWidthSmallStill, mediaId, lazyRenditions);
+                    break;
+                case "downsized":
+                    images.downsized = readRendition(in, RenditionType.downsized, mediaId, lazyRenditions);
+                    break;
+                case "downsized_still":
+                    images.downsizedStill = readRendition(in, RenditionType.downsizedStill, mediaId, lazyRenditions);
+                    break;
+                case "downsized_large":
+                    images.downsizedLarge = readRendition(in, RenditionType.downsizedLarge, mediaId, lazyRenditions);
+                    break;
+                case "downsized_medium":
+                    images.downsizedMedium = readRendition(in, RenditionType.downsizedMedium, mediaId, lazyRenditions);
+                    break;
+                case "original":
+                    images.original = readRendition(in, RenditionType.original, mediaId, lazyRenditions);
+                    break;
+                case "original_still":
+                    images.originalStill = readRendition(in, RenditionType.originalStill, mediaId, lazyRenditions);
+                    break;
+                case "looping":
+                    images.looping = readRendition(in, RenditionType.looping, mediaId, lazyRenditions);
+                    break;
+                case "preview":
+                    images.preview = readRendition(in, RenditionType.preview, mediaId, lazyRenditions);
+                    break;
+                case "downsized_small":
+                    images.downsizedSmall = readRendition(in, RenditionType.downsizedSmall, mediaId, lazyRenditions);
+                    break;
+                case "mediaId":
+                    images.mediaId = JsonValues.nextString(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        if (lazyRenditions != null) {
+            images.lazyRenditions = lazyRenditions.build(imageAdapter);
+        }
+        return images;
+    }
+
+    private Image readRendition(JsonReader in, RenditionType renditionType, String mediaId,
+                                LazyRenditions.Builder lazyRenditions) throws IOException {
+        if (renditions != null && !renditions.contains(renditionType)) {
+            // Skipped without building its strings
+            in.skipValue();
+            return null;
+        }
+        if (lazyRenditions != null) {
+            lazyRenditions.add(in, renditionType);
+            return null;
+        }
+        final Image image = imageAdapter.read(in);
+        if (image != null) {
+            image.renditionType = renditionType;
+            if (mediaId != null) {
+                image.setMediaId(mediaId);
+            }
+        }
+        return image;
+    }
+}
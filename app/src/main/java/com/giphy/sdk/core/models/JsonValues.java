@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.giphy.sdk.core.models.json.DateDeserializer;
+import com.giphy.sdk.core.models.json.DateSerializer;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Lenient primitive readers shared by the model type adapters. They mirror the behaviour of
+ * {@link com.giphy.sdk.core.models.json.IntDeserializer},
+ * {@link com.giphy.sdk.core.models.json.BooleanDeserializer} and {@link DateDeserializer} without
+ * building a json tree.
+ */
+final class JsonValues {
+    private JsonValues() {}
+
+    static String nextString(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case NULL:
+                in.nextNull();
+                return null;
+            case BOOLEAN:
+                return Boolean.toString(in.nextBoolean());
+            default:
+                return in.nextString();
+        }
+    }
+
+    /**
+     * Reads numbers sent either as json numbers or as strings. Empty strings and nulls are 0.
+     */
+    static int nextInt(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case NUMBER:
+            case STRING:
+                final String numberText = in.nextString();
+                if (numberText.isEmpty()) {
+                    return 0;
+                }
+                try {
+                    return Integer.parseInt(numberText);
+                } catch (NumberFormatException e) {
+                    return (int) Double.parseDouble(numberText);
+                }
+            default:
+                in.skipValue();
+                return 0;
+        }
+    }
+
+    /**
+     * Reads booleans sent either as json booleans or as numbers. Anything else is false.
+     */
+    static boolean nextBoolean(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case BOOLEAN:
+                return in.nextBoolean();
+            case NUMBER:
+                return nextInt(in) != 0;
+            default:
+                in.skipValue();
+                return false;
+        }
+    }
+
+    static Date nextDate(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case STRING:
+            case NUMBER:
+                return DateDeserializer.parse(in.nextString());
+            default:
+                in.skipValue();
+                return null;
+        }
+    }
+
+    static void writeDate(JsonWriter out, Date date) throws IOException {
+        if (date == null) {
+            out.nullValue();
+        } else {
+            out.value(DateSerializer.format(date));
+        }
+    }
+
+    static List<String> nextStringList(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final List<String> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(nextString(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    static void writeStringList(JsonWriter out, List<String> list) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String value : list) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Copies the next value, numbers keep their original text
+     */
+    static void copy(JsonReader in, JsonWriter out) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_OBJECT:
+                in.beginObject();
+                out.beginObject();
+                while (in.hasNext()) {
+                    out.name(in.nextName());
+                    copy(in, out);
+                }
+                in.endObject();
+                out.endObject();
+                break;
+            case BEGIN_ARRAY:
+                in.beginArray();
+                out.beginArray();
+                while (in.hasNext()) {
+                    copy(in, out);
+                }
+                in.endArray();
+                out.endArray();
+                break;
+            case STRING:
+                out.value(in.nextString());
+                break;
+            case NUMBER:
+                out.jsonValue(in.nextString());
+                break;
+            case BOOLEAN:
+                out.value(in.nextBoolean());
+                break;
+            case NULL:
+                in.nextNull();
+                out.nullValue();
+                break;
+            default:
+                in.skipValue();
+                break;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.models;
+
+import com.giphy.sdk.core.models.enums.RenditionType;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * The renditions of an {@link Images} kept as their json, in a single UTF-8 byte array. Each
+ * {@link Image} is decoded the first time it's requested, and the bytes are released once every
+ * rendition has been decoded.
+ */
+final class LazyRenditions {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final RenditionType[] RENDITION_TYPES = RenditionType.values();
+
+    private final TypeAdapter<Image> imageAdapter;
+    // Start and end offsets of each rendition in json, by rendition ordinal. -1 if it's missing.
+    private final int[] offsets;
+    private Image[] images;
+    private byte[] json;
+    private int pending;
+
+    private LazyRenditions(TypeAdapter<Image> imageAdapter, byte[] json, int[] offsets, int pending) {
+        this.imageAdapter = imageAdapter;
+        this.json = json;
+        this.offsets = offsets;
+        this.pending = pending;
+    }
+
+    /**
+     * @return the rendition, tagged with its type and the media id, or null if the response
+     * didn't have it
+     */
+    synchronized Image get(RenditionType renditionType, String mediaId) {
+        if (images != null && images[renditionType.ordinal()] != null) {
+            return images[renditionType.ordinal()];
+        }
+        final int start = offsets[renditionType.ordinal() * 2];
+        if (start < 0 || json == null) {
+            return null;
+        }
+        final int end = offsets[renditionType.ordinal() * 2 + 1];
+        final Image image;
+        try {
+            image = imageAdapter.read(new JsonReader(new InputStreamReader(
+                    new ByteArrayInputStream(json, start, end - start), UTF_8)));
+        } catch (IOException e) {
+            throw new JsonParseException("Unable to decode rendition " + renditionType, e);
+        }
+        if (image != null) {
+            image.renditionType = renditionType;
+            image.setMediaId(mediaId);
+        }
+        if (images == null) {
+            images = new Image[RENDITION_TYPES.length];
+        }
+        images[renditionType.ordinal()] = image;
+        offsets[renditionType.ordinal() * 2] = -1;
+        if (--pending == 0) {
+            json = null;
+        }
+        return image;
+    }
+
+    /**
+     * Collects the json of the renditions while they're read
+     */
+    static final class Builder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(2048);
+        private final int[] offsets = new int[RENDITION_TYPES.length * 2];
+        private int count;
+
+        Builder() {
+            Arrays.fill(offsets, -1);
+        }
+
+        /**
+         * Copies the next value as the json of the rendition
+         */
+        void add(JsonReader in, RenditionType renditionType) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return;
+            }
+            final int start = bytes.size();
+            // Each rendition is written as its own top level value
+            final JsonWriter writer = new JsonWriter(new OutputStreamWriter(bytes, UTF_8));
+            JsonValues.copy(in, writer);
+            writer.flush();
+            if (offsets[renditionType.ordinal() * 2] < 0) {
+                count++;
+            }
+            offsets[renditionType.ordinal() * 2] = start;
+            offsets[renditionType.ordinal() * 2 + 1] = bytes.size();
+        }
+
+        /**
+         * @return the renditions, or null if there are none
+         */
+        LazyRenditions build(TypeAdapter<Image> imageAdapter) {
+            return count > 0 ? new LazyRenditions(imageAdapter, bytes.toByteArray(), offsets, count) : null;
+        }
+    }
+}
@@ -21,59 +21,59 @@ import java.util.Date;
 import java.util.List;
 
 public class Media implements Parcelable {
-    private MediaType type;
-    private String id;
-    private String slug;
-    private String url;
+    MediaType type;
+    String id;
+    String slug;
+    String url;
     @SerializedName("bitly_gif_url")
-    private String bitlyGifUrl;
+    String bitlyGifUrl;
     @SerializedName("bitly_url")
-    private String bitlyUrl;
+    String bitlyUrl;
     @SerializedName("embed_url")
-    private String embedUrl;
-    private String source;
-    private String title;
-    private RatingType rating;
+    String embedUrl;
+    String source;
+    String title;
+    RatingType rating;
     @SerializedName("content_url")
-    private String contentUrl;
-    private List<String> tags;
+    String contentUrl;
+    List<String> tags;
     @SerializedName("featured_tags")
-    private List<String> featuredTags;
-    private User user;
-    private Images images;
+    List<String> featuredTags;
+    User user;
+    Images images;
 
     @SerializedName("source_tld")
-    private String sourceTld;
+    String sourceTld;
     @SerializedName("source_post_url")
-    private String sourcePostUrl;
+    String sourcePostUrl;
 
     @SerializedName("update_datetime")
-    private Date updateDate;
+    Date updateDate;
     @SerializedName("create_datetime")
-    private Date createDate;
+    Date createDate;
     @SerializedName("import_datetime")
-    private Date importDate;
+    Date importDate;
     @SerializedName("trending_datetime")
-    private Date trendingDate;
+    Date trendingDate;
 
     @SerializedName("is_hidden")
-    private boolean isHidden;
+    boolean isHidden;
     @SerializedName("is_removed")
-    private boolean isRemoved;
+    boolean isRemoved;
     @SerializedName("is_community")
-    private boolean isCommunity;
+    boolean isCommunity;
     @SerializedName("is_anonymous")
-    private boolean isAnonymous;
+    boolean isAnonymous;
     @SerializedName("is_featured")
-    private boolean isFeatured;
+    boolean isFeatured;
     @SerializedName("is_realtime")
-    private boolean isRealtime;
+    boolean isRealtime;
     @SerializedName("is_indexable")
-    private boolean isIndexable;
+    boolean isIndexable;
     @SerializedName("is_sticker")
-    private boolean isSticker;
+    boolean isSticker;
     @SerializedName("bottle_data")
-    private BottleData bottleData;
+    BottleData bottleData;
 
     public Media() {}
 
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.giphy.sdk.core.models.enums.RatingType;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming json adapter for {@link Media}, used instead of reflective binding.
+ */
+final class MediaTypeAdapter extends TypeAdapter<Media> {
+    private final TypeAdapter<MediaType> mediaTypeAdapter;
+    private final TypeAdapter<RatingType> ratingTypeAdapter;
+    private final TypeAdapter<User> userAdapter;
+    private final ImagesTypeAdapter imagesAdapter;
+    private final TypeAdapter<BottleData> bottleDataAdapter;
+
+    MediaTypeAdapter(Gson gson, ImagesTypeAdapter imagesAdapter) {
+        mediaTypeAdapter = gson.getAdapter(MediaType.class);
+        ratingTypeAdapter = gson.getAdapter(RatingType.class);
+        userAdapter = gson.getAdapter(User.class);
+        this.imagesAdapter = imagesAdapter;
+        bottleDataAdapter = gson.getAdapter(BottleData.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, Media value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("type");
+        mediaTypeAdapter.write(out, value.type);
+        out.name("id").value(value.id);
+        out.name("slug").value(value.slug);
+        out.name("url").value(value.url);
+        out.name("bitly_gif_url").value(value.bitlyGifUrl);
+        out.name("bitly_url").value(value.bitlyUrl);
+        out.name("embed_url").value(value.embedUrl);
+        out.name("source").value(value.source);
+        out.name("title").value(value.title);
+        out.name("rating");
+        ratingTypeAdapter.write(out, value.rating);
+        out.name("content_url").value(value.contentUrl);
+        out.name("tags");
+        JsonValues.writeStringList(out, value.tags);
+        out.name("featured_tags");
+        JsonValues.writeStringList(out, value.featuredTags);
+        out.name("user");
+        userAdapter.write(out, value.user);
+        out.name("images");
+        imagesAdapter.write(out, value.images);
+        out.name("source_tld").value(value.sourceTld);
+        out.name("source_post_url").value(value.sourcePostUrl);
+        out.name("update_datetime");
+        JsonValues.writeDate(out, value.updateDate);
+        out.name("create_datetime");
+        JsonValues.writeDate(out, value.createDate);
+        out.name("import_datetime");
+        JsonValues.writeDate(out, value.importDate);
+        out.name("trending_datetime");
+        JsonValues.writeDate(out, value.trendingDate);
+        out.name("is_hidden").value(value.isHidden);
+        out.name("is_removed").value(value.isRemoved);
+        out.name("is_community").value(value.isCommunity);
+        out.name("is_anonymous").value(value.isAnonymous);
+        out.name("is_featured").value(value.isFeatured);
+        out.name("is_realtime").value(value.isRealtime);
+        out.name("is_indexable").value(value.isIndexable);
+        out.name("is_sticker").value(value.isSticker);
+        out.name("bottle_data");
+        bottleDataAdapter.write(out, value.bottleData);
+        out.endObject();
+    }
+
+    @Override
+    public Media read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final Media media = new Media();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type":
+                    media.type = mediaTypeAdapter.read(in);
+                    break;
+                case "id":
+                    media.id = JsonValues.nextString(in);
+                    break;
+                case "slug":
+                    media.slug = JsonValues.nextString(in);
+                    break;
+                case "url":
+                    media.url = JsonValues.nextString(in);
+                    break;
+                case "bitly_gif_url":
+                    media.bitlyGifUrl = JsonValues.nextString(in);
+                    break;
+                case "bitly_url":
+                    media.bitlyUrl = JsonValues.nextString(in);
+                    break;
+                case "embed_url":
+                    media.embedUrl = JsonValues.nextString(in);
+                    break;
+                case "source":
+                    media.source = JsonValues.nextString(in);
+                    break;
+                case "title":
+                    media.title = JsonValues.nextString(in);
+                    break;
+                case "rating":
+                    media.rating = ratingTypeAdapter.read(in);
+                    break;
+                case "content_url":
+                    media.contentUrl = JsonValues.nextString(in);
+                    break;
+                case "tags":
+                    media.tags = JsonValues.nextStringList(in);
+                    break;
+                case "featured_tags":
+                    media.featuredTags = JsonValues.nextStringList(in);
+                    break;
+                case "user":
+                    media.user = userAdapter.read(in);
+                    break;
+                case "images":
+                    media.images = imagesAdapter.read(in, media.id);
+                    break;
+                case "source_tld":
+                    media.sourceTld = JsonValues.nextString(in);
+                    break;
+                case "source_post_url":
+                    media.sourcePostUrl = JsonValues.nextString(in);
+                    break;
+                case "update_datetime":
+                    media.updateDate = JsonValues.nextDate(in);
+                    break;
+                case "create_datetime":
+                    media.createDate = JsonValues.nextDate(in);
+                    break;
+                case "import_datetime":
+                    media.importDate = JsonValues.nextDate(in);
+                    break;
+                case "trending_datetime":
+                    media.trendingDate = JsonValues.nextDate(in);
+                    break;
+                case "is_hidden":
+                    media.isHidden = JsonValues.nextBoolean(in);
+                    break;
+                case "is_removed":
+                    media.isRemoved = JsonValues.nextBoolean(in);
+                    break;
+                case "is_community":
+                    media.isCommunity = JsonValues.nextBoolean(in);
+                    break;
+                case "is_anonymous":
+                    media.isAnonymous = JsonValues.nextBoolean(in);
+                    break;
+                case "is_featured":
+                    media.isFeatured = JsonValues.nextBoolean(in);
+                    break;
+                case "is_realtime":
+                    media.isRealtime = JsonValues.nextBoolean(in);
+                    break;
+                case "is_indexable":
+                    media.isIndexable = JsonValues.nextBoolean(in);
+                    break;
+                case "is_sticker":
+                    media.isSticker = JsonValues.nextBoolean(in);
+                    break;
+                case "bottle_data":
+                    media.bottleData = bottleDataAdapter.read(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        // The renditions are tagged while they're read, unless the id came after the images
+        if (media.images != null && (media.id == null ? media.images.mediaId != null : !media.id.equals(media.images.mediaId))) {
+            media.postProcess();
+        }
+        return media;
+    }
+}
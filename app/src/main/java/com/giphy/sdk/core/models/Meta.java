@@ -15,10 +15,10 @@ import android.os.Parcelable;
 import com.google.gson.annotations.SerializedName;
 
 public class Meta implements Parcelable {
-    private int status;
-    private String msg;
+    int status;
+    String msg;
     @SerializedName("response_id")
-    private String responseId;
+    String responseId;
 
     public Meta() {}
 
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming json adapter for {@link Meta}, used instead of reflective binding.
+ */
+final class MetaTypeAdapter extends TypeAdapter<Meta> {
+    @Override
+    public void write(JsonWriter out, Meta value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("status").value(value.status);
+        out.name("msg").value(value.msg);
+        out.name("response_id").value(value.responseId);
+        out.endObject();
+    }
+
+    @Override
+    public Meta read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final Meta meta = new Meta();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "status":
+                    meta.status = JsonValues.nextInt(in);
+                    break;
+                case "msg":
+                    meta.msg = JsonValues.nextString(in);
+                    break;
+                case "response_id":
+                    meta.responseId = JsonValues.nextString(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return meta;
+    }
+}
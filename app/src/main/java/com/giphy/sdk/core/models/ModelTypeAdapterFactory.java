@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.giphy.sdk.core.models.enums.RenditionType;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Provides the hand written streaming adapters for all the models, so that no model is bound
+ * through reflection.
+ */
+public class ModelTypeAdapterFactory implements TypeAdapterFactory {
+    private final Set<RenditionType> renditions;
+    private final boolean lazyImages;
+
+    public ModelTypeAdapterFactory() {
+        this(null, false);
+    }
+
+    /**
+     * @param renditions the renditions decoded in {@link Images}, the others are skipped without
+     *                   being built and their getters return null. Null to decode them all.
+     * @param lazyImages true to keep the renditions of each {@link Images} as compact json, and
+     *                   decode each {@link Image} the first time its getter is called
+     */
+    public ModelTypeAdapterFactory(Set<RenditionType> renditions, boolean lazyImages) {
+        this.renditions = renditions != null ? (renditions.isEmpty() ? EnumSet.noneOf(RenditionType.class)
+                : EnumSet.copyOf(renditions)) : null;
+        this.lazyImages = lazyImages;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        final Class<? super T> rawType = type.getRawType();
+        if (rawType == Media.class) {
+            return (TypeAdapter<T>) new MediaTypeAdapter(gson, new ImagesTypeAdapter(gson, renditions, lazyImages));
+        } else if (rawType == Images.class) {
+            return (TypeAdapter<T>) new ImagesTypeAdapter(gson, renditions, lazyImages);
+        } else if (rawType == Image.class) {
+            return (TypeAdapter<T>) new ImageTypeAdapter(gson);
+        } else if (rawType == User.class) {
+            return (TypeAdapter<T>) new UserTypeAdapter();
+        } else if (rawType == BottleData.class) {
+            return (TypeAdapter<T>) new BottleDataTypeAdapter();
+        } else if (rawType == Pagination.class) {
+            return (TypeAdapter<T>) new PaginationTypeAdapter();
+        } else if (rawType == Meta.class) {
+            return (TypeAdapter<T>) new MetaTypeAdapter();
+        } else if (rawType == Category.class) {
+            return (TypeAdapter<T>) new CategoryTypeAdapter(gson);
+        } else if (rawType == StickerPack.class) {
+            return (TypeAdapter<T>) new StickerPackTypeAdapter(gson);
+        } else if (rawType == TermSuggestion.class) {
+            return (TypeAdapter<T>) new TermSuggestionTypeAdapter();
+        } else if (rawType == RandomGif.class) {
+            return (TypeAdapter<T>) new RandomGifTypeAdapter(gson);
+        }
+        return null;
+    }
+}
@@ -16,13 +16,13 @@ import com.google.gson.annotations.SerializedName;
 
 public class Pagination implements Parcelable {
     @SerializedName("total_count")
-    private int totalCount;
-    private int count;
-    private int offset;
+    int totalCount;
+    int count;
+    int offset;
     @SerializedName("next_page")
-    private String nextPage;
+    String nextPage;
     @SerializedName("next_cursor")
-    private String nextCursor;
+    String nextCursor;
 
     public Pagination() {}
 
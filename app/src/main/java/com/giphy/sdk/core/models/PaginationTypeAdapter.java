@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming json adapter for {@link Pagination}, used instead of reflective binding.
+ */
+final class PaginationTypeAdapter extends TypeAdapter<Pagination> {
+    @Override
+    public void write(JsonWriter out, Pagination value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("total_count").value(value.totalCount);
+        out.name("count").value(value.count);
+        out.name("offset").value(value.offset);
+        out.name("next_page").value(value.nextPage);
+        out.name("next_cursor").value(value.nextCursor);
+        out.endObject();
+    }
+
+    @Override
+    public Pagination read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final Pagination pagination = new Pagination();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "total_count":
+                    pagination.totalCount = JsonValues.nextInt(in);
+                    break;
+                case "count":
+                    pagination.count = JsonValues.nextInt(in);
+                    break;
+                case "offset":
+                    pagination.offset = JsonValues.nextInt(in);
+                    break;
+                case "next_page":
+                    pagination.nextPage = JsonValues.nextString(in);
+                    break;
+                case "next_cursor":
+                    pagination.nextCursor = JsonValues.nextString(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return pagination;
+    }
+}
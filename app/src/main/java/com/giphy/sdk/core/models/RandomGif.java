@@ -13,51 +13,51 @@ import com.giphy.sdk.core.models.enums.MediaType;
 import com.google.gson.annotations.SerializedName;
 
 public class RandomGif {
-    private MediaType type;
-    private String id;
-    private String url;
+    MediaType type;
+    String id;
+    String url;
     @SerializedName("image_original_url")
-    private String imageOriginalUrl;
+    String imageOriginalUrl;
     @SerializedName("image_url")
-    private String imageUrl;
+    String imageUrl;
     @SerializedName("image_mp4_url")
-    private String imageMp4Url;
+    String imageMp4Url;
     @SerializedName("image_frames")
-    private int imageFrames;
+    int imageFrames;
     @SerializedName("image_width")
-    private int imageWidth;
+    int imageWidth;
     @SerializedName("image_height")
-    private int imageHeight;
+    int imageHeight;
     @SerializedName("fixed_height_downsampled_url")
-    private String fixedHeightDownsampledUrl;
+    String fixedHeightDownsampledUrl;
     @SerializedName("fixed_height_downsampled_width")
-    private int fixedHeightDownsampledWidth;
+    int fixedHeightDownsampledWidth;
     @SerializedName("fixed_height_downsampled_height")
-    private int fixedHeightDownsampledHeight;
+    int fixedHeightDownsampledHeight;
     @SerializedName("fixed_width_downsampled_url")
-    private String fixedWidthDownsampledUrl;
+    String fixedWidthDownsampledUrl;
     @SerializedName("fixed_width_downsampled_width")
-    private int fixedWidthDownsampledWidth;
+    int fixedWidthDownsampledWidth;
     @SerializedName("fixed_width_downsampled_height")
-    private int fixedWidthDownsampledHeight;
+    int fixedWidthDownsampledHeight;
     @SerializedName("fixed_height_small_url")
-    private String fixedHeightSmallUrl;
+    String fixedHeightSmallUrl;
     @SerializedName("fixed_height_small_still_url")
-    private String fixedHeightSmallStillUrl;
+    String fixedHeightSmallStillUrl;
     @SerializedName("fixed_height_small_width")
-    private int fixedHeightSmallWidth;
+    int fixedHeightSmallWidth;
     @SerializedName("fixed_height_small_height")
-    private int fixedHeightSmallHeight;
+    int fixedHeightSmallHeight;
     @SerializedName("fixed_width_small_url")
-    private String fixedWidthSmallUrl;
+    String fixedWidthSmallUrl;
     @SerializedName("fixed_width_small_still_url")
-    private String fixedWidthSmallStillUrl;
+    String fixedWidthSmallStillUrl;
     @SerializedName("fixed_width_small_width")
-    private int fixedWidthSmallWidth;
+    int fixedWidthSmallWidth;
     @SerializedName("fixed_width_small_height")
-    private int fixedWidthSmallHeight;
-    private String username;
-    private String caption;
+    int fixedWidthSmallHeight;
+    String username;
+    String caption;
 
     public Media toGif() {
         final Media media = new Media();
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming json adapter for {@link RandomGif}, used instead of reflective binding.
+ */
+final class RandomGifTypeAdapter extends TypeAdapter<RandomGif> {
+    private final TypeAdapter<MediaType> mediaTypeAdapter;
+
+    RandomGifTypeAdapter(Gson gson) {
+        mediaTypeAdapter = gson.getAdapter(MediaType.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, RandomGif value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("type");
+        mediaTypeAdapter.write(out, value.type);
+        out.name("id").value(value.id);
+        out.name("url").value(value.url);
+        out.name("image_original_url").value(value.imageOriginalUrl);
+        out.name("image_url").value(value.imageUrl);
+        out.name("image_mp4_url").value(value.imageMp4Url);
+        out.name("image_frames").value(value.imageFrames);
+        out.name("image_width").value(value.imageWidth);
+        out.name("image_height").value(value.imageHeight);
+        out.name("fixed_height_downsampled_url").value(value.fixedHeightDownsampledUrl);
+        out.name("fixed_height_downsampled_width").value(value.fixedHeightDownsampledWidth);
+        out.name("fixed_height_downsampled_height").value(value.fixedHeightDownsampledHeight);
+        out.name("fixed_width_downsampled_url").value(value.fixedWidthDownsampledUrl);
+        out.name("fixed_width_downsampled_width").value(value.fixedWidthDownsampledWidth);
+        out.name("fixed_width_downsampled_height").value(value.fixedWidthDownsampledHeight);
+        out.name("fixed_height_small_url").value(value.fixedHeightSmallUrl);
+        out.name("fixed_height_small_still_url").value(value.fixedHeightSmallStillUrl);
+        out.name("fixed_height_small_width").value(value.fixedHeightSmallWidth);
+        out.name("fixed_height_small_height").value(value.fixedHeightSmallHeight);
+        out.name("fixed_width_small_url").value(value.fixedWidthSmallUrl);
+        out.name("fixed_width_small_still_url").value(value.fixedWidthSmallStillUrl);
+        out.name("fixed_width_small_width").value(value.fixedWidthSmallWidth);
+        out.name("fixed_width_small_height").value(value.fixedWidthSmallHeight);
+        out.name("username").value(value.username);
+        out.name("caption").value(value.caption);
+        out.endObject();
+    }
+
+    @Override
+    public RandomGif read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final RandomGif randomGif = new RandomGif();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type":
+                    randomGif.type = mediaTypeAdapter.read(in);
+                    break;
+                case "id":
+                    randomGif.id = JsonValues.nextString(in);
+                    break;
+                case "url":
+                    randomGif.url = JsonValues.nextString(in);
+                    break;
+                case "image_original_url":
+                    randomGif.imageOriginalUrl = JsonValues.nextString(in);
+                    break;
+                case "image_url":
+                    randomGif.imageUrl = JsonValues.nextString(in);
+                    break;
+                case "image_mp4_url":
+                    randomGif.imageMp4Url = JsonValues.nextString(in);
+                    break;
+                case "image_frames":
+                    randomGif.imageFrames = JsonValues.nextInt(in);
+                    break;
+                case "image_width":
+                    randomGif.imageWidth = JsonValues.nextInt(in);
+                    break;
+                case "image_height":
+                    randomGif.imageHeight = JsonValues.nextInt(in);
+                    break;
+                case "fixed_height_downsampled_url":
+                    randomGif.fixedHeightDownsampledUrl = JsonValues.nextString(in);
+                    break;
+                case "fixed_height_downsampled_width":
+                    randomGif.fixedHeightDownsampledWidth = JsonValues.nextInt(in);
+                    break;
+                case "fixed_height_downsampled_height":
+                    randomGif.fixedHeightDownsampledHeight = JsonValues.nextInt(in);
+                    break;
+                case "fixed_width_downsampled_url":
+                    randomGif.fixedWidthDownsampledUrl = JsonValues.nextString(in);
+                    break;
+                case "fixed_width_downsampled_width":
+                    randomGif.fixedWidthDownsampledWidth = JsonValues.nextInt(in);
+                    break;
+                case "fixed_width_downsampled_height":
+                    randomGif.fixedWidthDownsampledHeight = JsonValues.nextInt(in);
+                    break;
+                case "fixed_height_small_url":
+                    randomGif.fixedHeightSmallUrl = JsonValues.nextString(in);
+                    break;
+                case "fixed_height_small_still_url":
+                    randomGif.fixedHeightSmallStillUrl = JsonValues.nextString(in);
+                    break;
+                case "fixed_height_small_width":
+                    randomGif.fixedHeightSmallWidth = JsonValues.nextInt(in);
+                    break;
+                case "fixed_height_small_height":
+                    randomGif.fixedHeightSmallHeight = JsonValues.nextInt(in);
+                    break;
+                case "fixed_width_small_url":
+                    randomGif.fixedWidthSmallUrl = JsonValues.nextString(in);
+                    break;
+                case "fixed_width_small_still_url":
+                    randomGif.fixedWidthSmallStillUrl = JsonValues.nextString(in);
+                    break;
+                case "fixed_width_small_width":
+                    randomGif.fixedWidthSmallWidth = JsonValues.nextInt(in);
+                    break;
+                case "fixed_width_small_height":
+                    randomGif.fixedWidthSmallHeight = JsonValues.nextInt(in);
+                    break;
+                case "username":
+                    randomGif.username = JsonValues.nextString(in);
+                    break;
+                case "caption":
+                    randomGif.caption = JsonValues.nextString(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return randomGif;
+    }
+}
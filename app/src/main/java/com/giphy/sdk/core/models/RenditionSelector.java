@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.models;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.giphy.sdk.core.models.enums.ImageFormat;
+import com.giphy.sdk.core.models.enums.RenditionType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Picks the cheapest rendition of a media for a view.
+ *
+ * A rendition qualifies if it's at least as large as the target size, in one of the accepted
+ * formats, animated unless stills are accepted, and within the byte budget. Among them the one
+ * with the fewest bytes wins, ties going to the preferred format. If none qualifies, the largest
+ * rendition within the budget is returned, or else the smallest one overall.
+ */
+public class RenditionSelector {
+    private final int targetWidth;
+    private final int targetHeight;
+    private List<ImageFormat> formats = Arrays.asList(ImageFormat.webp, ImageFormat.mp4, ImageFormat.gif);
+    private long maxBytes = Long.MAX_VALUE;
+    private boolean stillAccepted;
+
+    /**
+     * @param targetWidth width of the view in pixels, 0 if any width fits
+     * @param targetHeight height of the view in pixels, 0 if any height fits
+     */
+    public RenditionSelector(int targetWidth, int targetHeight) {
+        this.targetWidth = targetWidth;
+        this.targetHeight = targetHeight;
+    }
+
+    /**
+     * @param formats the accepted formats, in order of preference. Defaults to webp, mp4 and gif.
+     */
+    public void setFormats(@NonNull ImageFormat... formats) {
+        if (formats.length == 0) {
+            throw new IllegalArgumentException("At least one format must be accepted");
+        }
+        this.formats = Collections.unmodifiableList(Arrays.asList(formats.clone()));
+    }
+
+    /**
+     * @param maxBytes maximum size of the file
+     */
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Limits the size of the file to what can be downloaded in the given time.
+     * @param bytesPerSecond measured bandwidth
+     * @param maxLoadTimeMs how long the file may take to download
+     */
+    public void setBandwidth(long bytesPerSecond, long maxLoadTimeMs) {
+        this.maxBytes = bytesPerSecond * maxLoadTimeMs / 1000;
+    }
+
+    /**
+     * @param stillAccepted true if a still image fits, e.g. for a paused view
+     */
+    public void setStillAccepted(boolean stillAccepted) {
+        this.stillAccepted = stillAccepted;
+    }
+
+    public int getTargetWidth() {
+        return targetWidth;
+    }
+
+    public int getTargetHeight() {
+        return targetHeight;
+    }
+
+    @NonNull
+    public List<ImageFormat> getFormats() {
+        return formats;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public boolean isStillAccepted() {
+        return stillAccepted;
+    }
+
+    /**
+     * @param images the renditions of a media
+     * @return the selected rendition and format, or null if the media has none in an accepted format
+     */
+    @Nullable
+    public Selection select(@Nullable Images images) {
+        if (images == null) {
+            return null;
+        }
+        Selection cheapest = null;
+        Selection largestWithinBudget = null;
+        Selection smallest = null;
+        for (RenditionType renditionType : RenditionType.values()) {
+            final Image image = images.getImage(renditionType);
+            if (image == null || (!stillAccepted && isStill(image, renditionType))) {
+                continue;
+            }
+            for (int preference = 0; preference < formats.size(); preference++) {
+                final ImageFormat format = formats.get(preference);
+                final String url = getUrl(image, format);
+                final int size = getSize(image, format);
+                if (url == null || size <= 0) {
+                    continue;
+                }
+                final Selection selection = new Selection(image, format, url, size, preference);
+                if (smallest == null || selection.isCheaperThan(smallest)) {
+                    smallest = selection;
+                }
+                if (size > maxBytes) {
+                    continue;
+                }
+                if (largestWithinBudget == null || isLarger(image, largestWithinBudget.image)
+                        || (sameArea(image, largestWithinBudget.image) && selection.isCheaperThan(largestWithinBudget))) {
+                    largestWithinBudget = selection;
+                }
+                if (covers(image) && (cheapest == null || selection.isCheaperThan(cheapest))) {
+                    cheapest = selection;
+                }
+            }
+        }
+        if (cheapest != null) {
+            return cheapest;
+        }
+        return largestWithinBudget != null ? largestWithinBudget : smallest;
+    }
+
+    private boolean covers(@NonNull Image image) {
+        return image.getWidth() >= targetWidth && image.getHeight() >= targetHeight;
+    }
+
+    private static boolean isLarger(@NonNull Image image, @NonNull Image other) {
+        return (long) image.getWidth() * image.getHeight() > (long) other.getWidth() * other.getHeight();
+    }
+
+    private static boolean sameArea(@NonNull Image image, @NonNull Image other) {
+        return (long) image.getWidth() * image.getHeight() == (long) other.getWidth() * other.getHeight();
+    }
+
+    private static boolean isStill(@NonNull Image image, @NonNull RenditionType renditionType) {
+        return image.getFrames() == 1 || renditionType.name().endsWith("Still");
+    }
+
+    /**
+     * @return the URL of the image in the given format, or null if it's not available
+     */
+    @Nullable
+    public static String getUrl(@NonNull Image image, @NonNull ImageFormat format) {
+        switch (format) {
+            case mp4:
+                return image.getMp4Url();
+            case webp:
+                return image.getWebPUrl();
+            default:
+                return image.getGifUrl();
+        }
+    }
+
+    /**
+     * @return the file size of the image in the given format, or 0 if it's unknown
+     */
+    public static int getSize(@NonNull Image image, @NonNull ImageFormat format) {
+        switch (format) {
+            case mp4:
+                return image.getMp4Size();
+            case webp:
+                return image.getWebPSize();
+            default:
+                return image.getGifSize();
+        }
+    }
+
+    /**
+     * A rendition of a media in a given format
+     */
+    public static class Selection {
+        private final Image image;
+        private final ImageFormat format;
+        private final String url;
+        private final int size;
+        private final int preference;
+
+        Selection(@NonNull Image image, @NonNull ImageFormat format, @NonNull String url, int size, int preference) {
+            this.image = image;
+            this.format = format;
+            this.url = url;
+            this.size = size;
+            this.preference = preference;
+        }
+
+        @NonNull
+        public Image getImage() {
+            return image;
+        }
+
+        @NonNull
+        public ImageFormat getFormat() {
+            return format;
+        }
+
+        /**
+         * @return URL of the file in the selected format
+         */
+        @NonNull
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * @return file size in bytes
+         */
+        public int getSize() {
+            return size;
+        }
+
+        private boolean isCheaperThan(@NonNull Selection other) {
+            return size < other.size || (size == other.size && preference < other.preference);
+        }
+    }
+}
@@ -16,22 +16,22 @@ import com.giphy.sdk.core.models.enums.MediaType;
 import com.google.gson.annotations.SerializedName;
 
 public class StickerPack implements Parcelable {
-  private String id;
+  String id;
   @SerializedName("display_name")
-  private String displayName;
-  private String parent;
-  private String slug;
-  private String type;
+  String displayName;
+  String parent;
+  String slug;
+  String type;
   @SerializedName("content_type")
-  private MediaType contentType;
+  MediaType contentType;
   @SerializedName("short_display_name")
-  private String shortDisplayName;
-  private String description;
+  String shortDisplayName;
+  String description;
   @SerializedName("has_children")
-  private boolean hasChildren;
-  private User user;
+  boolean hasChildren;
+  User user;
   @SerializedName("featured_gif")
-  private Media featuredGif;
+  Media featuredGif;
 
   public String getId() {
     return id;
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming json adapter for {@link StickerPack}, used instead of reflective binding.
+ */
+final class StickerPackTypeAdapter extends TypeAdapter<StickerPack> {
+    private final TypeAdapter<MediaType> mediaTypeAdapter;
+    private final TypeAdapter<User> userAdapter;
+    private final TypeAdapter<Media> mediaAdapter;
+
+    StickerPackTypeAdapter(Gson gson) {
+        mediaTypeAdapter = gson.getAdapter(MediaType.class);
+        userAdapter = gson.getAdapter(User.class);
+        mediaAdapter = gson.getAdapter(Media.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, StickerPack value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.id);
+        out.name("display_name").value(value.displayName);
+        out.name("parent").value(value.parent);
+        out.name("slug").value(value.slug);
+        out.name("type").value(value.type);
+        out.name("content_type");
+        mediaTypeAdapter.write(out, value.contentType);
+        out.name("short_display_name").value(value.shortDisplayName);
+        out.name("description").value(value.description);
+        out.name("has_children").value(value.hasChildren);
+        out.name("user");
+        userAdapter.write(out, value.user);
+        out.name("featured_gif");
+        mediaAdapter.write(out, value.featuredGif);
+        out.endObject();
+    }
+
+    @Override
+    public StickerPack read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final StickerPack stickerPack = new StickerPack();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    stickerPack.id = JsonValues.nextString(in);
+                    break;
+                case "display_name":
+                    stickerPack.displayName = JsonValues.nextString(in);
+                    break;
+                case "parent":
+                    stickerPack.parent = JsonValues.nextString(in);
+                    break;
+                case "slug":
+                    stickerPack.slug = JsonValues.nextString(in);
+                    break;
+                case "type":
+                    stickerPack.type = JsonValues.nextString(in);
+                    break;
+                case "content_type":
+                    stickerPack.contentType = mediaTypeAdapter.read(in);
+                    break;
+                case "short_display_name":
+                    stickerPack.shortDisplayName = JsonValues.nextString(in);
+                    break;
+                case "description":
+                    stickerPack.description = JsonValues.nextString(in);
+                    break;
+                case "has_children":
+                    stickerPack.hasChildren = JsonValues.nextBoolean(in);
+                    break;
+                case "user":
+                    stickerPack.user = userAdapter.read(in);
+                    break;
+                case "featured_gif":
+                    stickerPack.featuredGif = mediaAdapter.read(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return stickerPack;
+    }
+}
@@ -16,7 +16,7 @@ import com.google.gson.annotations.SerializedName;
 
 public class TermSuggestion implements Parcelable {
     @SerializedName("name")
-    private String term;
+    String term;
 
     public TermSuggestion() {}
 
@@ -15,39 +15,39 @@ import android.os.Parcelable;
 import com.google.gson.annotations.SerializedName;
 
 public class User implements Parcelable {
-    private String id;
+    String id;
     @SerializedName("avatar_url")
-    private String avatarUrl;
+    String avatarUrl;
     @SerializedName("banner_url")
-    private String bannerUrl;
+    String bannerUrl;
     @SerializedName("profile_url")
-    private String profileUrl;
-    private String username;
+    String profileUrl;
+    String username;
     @SerializedName("display_name")
-    private String displayName;
-    private String twitter;
+    String displayName;
+    String twitter;
     @SerializedName("is_public")
-    private boolean isPublic;
+    boolean isPublic;
     @SerializedName("attribution_display_name")
-    private String attributionDisplayName;
-    private String name;
-    private String description;
+    String attributionDisplayName;
+    String name;
+    String description;
     @SerializedName("facebook_url")
-    private String facebookUrl;
+    String facebookUrl;
     @SerializedName("twitter_url")
-    private String twitterUrl;
+    String twitterUrl;
     @SerializedName("instagram_url")
-    private String instagramUrl;
+    String instagramUrl;
     @SerializedName("tumblr_url")
-    private String tumblrUrl;
+    String tumblrUrl;
     @SerializedName("suppress_chrome")
-    private boolean suppressChrome;
+    boolean suppressChrome;
     @SerializedName("website_url")
-    private String websiteUrl;
+    String websiteUrl;
     @SerializedName("website_display_url")
-    private String websiteDisplayUrl;
+    String websiteDisplayUrl;
     @SerializedName("is_verified")
-    private boolean isVerified;
+    boolean isVerified;
 
     public User() {}
 
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming json adapter for {@link User}, used instead of reflective binding.
+ */
+final class UserTypeAdapter extends TypeAdapter<User> {
+    @Override
+    public void write(JsonWriter out, User value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.id);
+        out.name("avatar_url").value(value.avatarUrl);
+        out.name("banner_url").value(value.bannerUrl);
+        out.name("profile_url").value(value.profileUrl);
+        out.name("username").value(value.username);
+        out.name("display_name").value(value.displayName);
+        out.name("twitter").value(value.twitter);
+        out.name("is_public").value(value.isPublic);
+        out.name("attribution_display_name").value(value.attributionDisplayName);
+        out.name("name").value(value.name);
+        out.name("description").value(value.description);
+        out.name("facebook_url").value(value.facebookUrl);
+        out.name("twitter_url").value(value.twitterUrl);
+        out.name("instagram_url").value(value.instagramUrl);
+        out.name("tumblr_url").value(value.tumblrUrl);
+        out.name("suppress_chrome").value(value.suppressChrome);
+        out.name("website_url").value(value.websiteUrl);
+        out.name("website_display_url").value(value.websiteDisplayUrl);
+        out.name("is_verified").value(value.isVerified);
+        out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final User user = new User();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    user.id = JsonValues.nextString(in);
+                    break;
+                case "avatar_url":
+                    user.avatarUrl = JsonValues.nextString(in);
+                    break;
+                case "banner_url":
+                    user.bannerUrl = JsonValues.nextString(in);
+                    break;
+                case "profile_url":
+                    user.profileUrl = JsonValues.nextString(in);
+                    break;
+                case "username":
+                    user.username = JsonValues.nextString(in);
+                    break;
+                case "display_name":
+                    user.displayName = JsonValues.nextString(in);
+                    break;
+                case "twitter":
+                    user.twitter = JsonValues.nextString(in);
+                    break;
+                case "is_public":
+                    user.isPublic = JsonValues.nextBoolean(in);
+                    break;
+                case "attribution_display_name":
+                    user.attributionDisplayName = JsonValues.nextString(in);
+                    break;
+                case "name":
+                    user.name = JsonValues.nextString(in);
+                    break;
+                case "description":
+                    user.description = JsonValues.nextString(in);
+                    break;
+                case "facebook_url":
+                    user.facebookUrl = JsonValues.nextString(in);
+                    break;
+                case "twitter_url":
+                    user.twitterUrl = JsonValues.nextString(in);
+                    break;
+                case "instagram_url":
+                    user.instagramUrl = JsonValues.nextString(in);
+                    break;
+                case "tumblr_url":
+                    user.tumblrUrl = JsonValues.nextString(in);
+                    break;
+                case "suppress_chrome":
+                    user.suppressChrome = JsonValues.nextBoolean(in);
+                    break;
+                case "website_url":
+                    user.websiteUrl = JsonValues.nextString(in);
+                    break;
+                case "website_display_url":
+                    user.websiteDisplayUrl = JsonValues.nextString(in);
+                    break;
+                case "is_verified":
+                    user.isVerified = JsonValues.nextBoolean(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return user;
+    }
+}
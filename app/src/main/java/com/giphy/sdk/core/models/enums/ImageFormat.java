@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.models.enums;
+
+/**
+ * File formats in which a rendition is available
+ */
+public enum ImageFormat {
+    gif,
+    mp4,
+    webp
+}
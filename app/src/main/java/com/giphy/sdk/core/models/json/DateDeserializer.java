@@ -15,25 +15,87 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
 
 import java.lang.reflect.Type;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.TimeZone;
 
+/**
+ * Parses both the "yyyy-MM-dd HH:mm:ss" dates and the "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'" dates used by
+ * stories. The format is detected from the separators, and parsing is safe to use from multiple
+ * threads at once.
+ */
 public class DateDeserializer implements JsonDeserializer<Date> {
-    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
-    private final DateFormat dateFormatStories = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+    private static final ThreadLocal<Calendar> CALENDAR = new ThreadLocal<Calendar>() {
+        @Override
+        protected Calendar initialValue() {
+            return new GregorianCalendar(Locale.US);
+        }
+    };
 
     public Date deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
             throws JsonParseException {
-        Date date = null;
         try {
-            date = dateFormat.parse(json.getAsJsonPrimitive().getAsString());
+            return parse(json.getAsJsonPrimitive().getAsString());
         } catch (Exception e) {
-            try {
-                date = dateFormatStories.parse(json.getAsJsonPrimitive().getAsString());
-            } catch (Exception e2) { }
+            return null;
+        }
+    }
+
+    /**
+     * Parses a date in the local time zone, the same way the previous SimpleDateFormat based
+     * parser did.
+     * @param text date string in either of the supported formats
+     * @return the parsed date, or null if text doesn't match any of the formats
+     */
+    public static Date parse(String text) {
+        if (text == null || text.length() < 19
+                || text.charAt(4) != '-' || text.charAt(7) != '-'
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return null;
+        }
+        int millis = 0;
+        final char separator = text.charAt(10);
+        if (separator == 'T') {
+            if (text.length() < 24 || text.charAt(19) != '.' || text.charAt(23) != 'Z') {
+                return null;
+            }
+            millis = digits(text, 20, 3);
+        } else if (separator != ' ') {
+            return null;
+        }
+        final int year = digits(text, 0, 4);
+        final int month = digits(text, 5, 2);
+        final int day = digits(text, 8, 2);
+        final int hour = digits(text, 11, 2);
+        final int minute = digits(text, 14, 2);
+        final int second = digits(text, 17, 2);
+        if ((year | month | day | hour | minute | second | millis) < 0) {
+            return null;
+        }
+
+        final Calendar calendar = CALENDAR.get();
+        // Follows changes of the default time zone made after the calendar was created
+        calendar.setTimeZone(TimeZone.getDefault());
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute, second);
+        calendar.set(Calendar.MILLISECOND, millis);
+        return new Date(calendar.getTimeInMillis());
+    }
+
+    /**
+     * @return the decimal value of the given range, or -1 if it contains anything but digits
+     */
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            final char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
         }
-        return date;
+        return value;
     }
-}
\ No newline at end of file
+}
@@ -16,14 +16,51 @@ import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
 
 import java.lang.reflect.Type;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.TimeZone;
 
+/**
+ * Writes dates as "yyyy-MM-dd HH:mm:ss" in the local time zone. Safe to use from multiple threads.
+ */
 public class DateSerializer implements JsonSerializer<Date> {
-    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+    private static final ThreadLocal<Calendar> CALENDAR = new ThreadLocal<Calendar>() {
+        @Override
+        protected Calendar initialValue() {
+            return new GregorianCalendar(Locale.US);
+        }
+    };
+
     public JsonElement serialize(Date src, Type typeOfSrc, JsonSerializationContext context) {
-        return new JsonPrimitive(dateFormat.format(src));
+        return new JsonPrimitive(format(src));
+    }
+
+    public static String format(Date date) {
+        final Calendar calendar = CALENDAR.get();
+        // Follows changes of the default time zone made after the calendar was created
+        calendar.setTimeZone(TimeZone.getDefault());
+        calendar.setTime(date);
+        final char[] chars = new char[19];
+        digits(chars, 0, 4, calendar.get(Calendar.YEAR));
+        chars[4] = '-';
+        digits(chars, 5, 2, calendar.get(Calendar.MONTH) + 1);
+        chars[7] = '-';
+        digits(chars, 8, 2, calendar.get(Calendar.DAY_OF_MONTH));
+        chars[10] = ' ';
+        digits(chars, 11, 2, calendar.get(Calendar.HOUR_OF_DAY));
+        chars[13] = ':';
+        digits(chars, 14, 2, calendar.get(Calendar.MINUTE));
+        chars[16] = ':';
+        digits(chars, 17, 2, calendar.get(Calendar.SECOND));
+        return new String(chars);
+    }
+
+    private static void digits(char[] chars, int start, int count, int value) {
+        for (int i = start + count - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
     }
-}
\ No newline at end of file
+}
@@ -19,8 +19,19 @@ import com.google.gson.stream.JsonWriter;
 
 import java.io.IOException;
 
+/**
+ * Runs {@link Media#postProcess()} on every decoded media. Only media types are wrapped, every
+ * other type is left to the adapter Gson would use anyway.
+ *
+ * {@link com.giphy.sdk.core.models.ModelTypeAdapterFactory} already post processes the media
+ * while decoding them, so this factory is only needed by Gson instances that bind the models
+ * through reflection.
+ */
 public class MainAdapterFactory implements TypeAdapterFactory {
     public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!Media.class.isAssignableFrom(type.getRawType())) {
+            return null;
+        }
         final TypeAdapter<T> delegateAdapter = gson.getDelegateAdapter(this, type);
         return new TypeAdapter<T>() {
             @Override
@@ -31,7 +42,7 @@ public class MainAdapterFactory implements TypeAdapterFactory {
             @Override
             public T read(JsonReader in) throws IOException {
                 T obj = delegateAdapter.read(in);
-                if (obj instanceof Media) {
+                if (obj != null) {
                     ((Media) obj).postProcess();
                 }
                 return obj;
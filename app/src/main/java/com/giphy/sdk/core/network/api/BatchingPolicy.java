@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.api;
+
+/**
+ * Describes how {@link GPHApiClient#gifById} calls are grouped into a single
+ * {@link GPHApiClient#gifsByIds} request.
+ */
+public class BatchingPolicy {
+    public static final long DEFAULT_WINDOW_MS = 20;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
+    private final long windowMs;
+    private final int maxBatchSize;
+
+    public BatchingPolicy() {
+        this(DEFAULT_WINDOW_MS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @param windowMs how long the first call of a batch waits for others to join it
+     * @param maxBatchSize number of distinct ids that sends the batch right away
+     */
+    public BatchingPolicy(long windowMs, int maxBatchSize) {
+        if (windowMs < 0) {
+            throw new IllegalArgumentException("windowMs must not be negative");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @return how long the first call of a batch waits for others to join it, in milliseconds
+     */
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    /**
+     * @return number of distinct ids that sends the batch right away
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+}
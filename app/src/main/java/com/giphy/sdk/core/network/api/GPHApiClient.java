@@ -16,8 +16,11 @@ import com.giphy.sdk.core.models.Category;
 import com.giphy.sdk.core.models.enums.LangType;
 import com.giphy.sdk.core.models.enums.MediaType;
 import com.giphy.sdk.core.models.enums.RatingType;
+import com.giphy.sdk.core.models.enums.RenditionType;
 import com.giphy.sdk.core.network.engine.DefaultNetworkSession;
 import com.giphy.sdk.core.network.engine.NetworkSession;
+import com.giphy.sdk.core.network.engine.RequestKeys;
+import com.giphy.sdk.core.network.response.GenericResponse;
 import com.giphy.sdk.core.network.response.ListCategoryResponse;
 import com.giphy.sdk.core.network.response.ListMediaResponse;
 import com.giphy.sdk.core.network.response.ListStickerPacksResponse;
@@ -25,11 +28,16 @@ import com.giphy.sdk.core.network.response.ListTermSuggestionResponse;
 import com.giphy.sdk.core.network.response.MediaResponse;
 import com.giphy.sdk.core.network.response.RandomGifResponse;
 import com.giphy.sdk.core.network.response.StickerPackResponse;
+import com.giphy.sdk.core.threading.ApiTask;
+import com.giphy.sdk.core.threading.Priority;
+import com.giphy.sdk.core.threading.PriorityThreadPoolExecutor;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main class that implements all endpoints supported by the sdk.
@@ -41,14 +49,61 @@ public class GPHApiClient implements GPHApi {
 
     private final NetworkSession networkSessionImpl;
     private final String apiKey;
+    // Holds the settings shared with the clients returned by withPriority
+    private final GPHApiClient root;
+    private final Priority priority;
+    private volatile RequestCoalescer requestCoalescer = new RequestCoalescer();
+    private volatile GifByIdBatcher gifByIdBatcher;
+    private volatile long requestDeadlineMs = -1;
 
     public GPHApiClient(String apiKey) {
         this(apiKey, new DefaultNetworkSession());
     }
 
+    /**
+     * Creates a client whose media decode only the given renditions of their images, the others
+     * are skipped while the responses are parsed and their getters return null.
+     * @param decodedRenditions the renditions the app displays
+     */
+    public GPHApiClient(String apiKey, @NonNull Set<RenditionType> decodedRenditions) {
+        this(apiKey, newSession(decodedRenditions));
+    }
+
     public GPHApiClient(String apiKey, NetworkSession session) {
         this.apiKey = apiKey;
         this.networkSessionImpl = session;
+        this.root = this;
+        this.priority = PriorityThreadPoolExecutor.DEFAULT_PRIORITY;
+    }
+
+    private GPHApiClient(@NonNull GPHApiClient root, @NonNull Priority priority) {
+        this.apiKey = root.apiKey;
+        this.networkSessionImpl = root.networkSessionImpl;
+        this.root = root;
+        this.priority = priority;
+    }
+
+    private static NetworkSession newSession(@NonNull Set<RenditionType> decodedRenditions) {
+        final DefaultNetworkSession session = new DefaultNetworkSession();
+        session.setDecodedRenditions(decodedRenditions);
+        return session;
+    }
+
+    /**
+     * Returns a client whose requests are queued with the given priority, e.g.
+     * {@link Priority#PREFETCH} for the requests made ahead of time. It shares the network session,
+     * the settings and the requests in flight of this client.
+     * @param priority how urgent the requests are
+     * @return the client
+     */
+    @NonNull
+    public GPHApiClient withPriority(@NonNull Priority priority) {
+        return priority == this.priority ? this : new GPHApiClient(root, priority);
+    }
+
+    @NonNull
+    public Priority getPriority() {
+        return priority;
     }
 
     @Override
@@ -74,9 +129,8 @@ public class GPHApiClient implements GPHApi {
             params.put("lang", lang.toString());
         }
 
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.SEARCH, mediaTypeToEndpoint(type)), HTTP_GET,
-                ListMediaResponse.class, params, null).executeAsyncTask(completionHandler);
+        return executeGet(String.format(Constants.Paths.SEARCH, mediaTypeToEndpoint(type)),
+                ListMediaResponse.class, params, completionHandler);
     }
 
     @Override
@@ -95,9 +149,8 @@ public class GPHApiClient implements GPHApi {
         if (rating != null) {
             params.put("rating", rating.toString());
         }
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.TRENDING, mediaTypeToEndpoint(type)), HTTP_GET,
-                ListMediaResponse.class, params, null).executeAsyncTask(completionHandler);
+        return executeGet(String.format(Constants.Paths.TRENDING, mediaTypeToEndpoint(type)),
+                ListMediaResponse.class, params, completionHandler);
     }
 
     @Override
@@ -114,9 +167,8 @@ public class GPHApiClient implements GPHApi {
         if (lang != null) {
             params.put("lang", lang.toString());
         }
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.TRANSLATE, mediaTypeToEndpoint(type)), HTTP_GET,
-                MediaResponse.class, params, null).executeAsyncTask(completionHandler);
+        return executeGet(String.format(Constants.Paths.TRANSLATE, mediaTypeToEndpoint(type)),
+                MediaResponse.class, params, completionHandler);
     }
 
     @Override
@@ -143,7 +195,9 @@ public class GPHApiClient implements GPHApi {
 
         return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
                 String.format(Constants.Paths.RANDOM, mediaTypeToEndpoint(type)), HTTP_GET,
-                RandomGifResponse.class, params, null).executeAsyncTask(completionHandlerWrapper);
+                RandomGifResponse.class, params, null)
+                .setDeadline(root.requestDeadlineMs, TimeUnit.MILLISECONDS)
+                .executeAsyncTask(completionHandlerWrapper, priority);
     }
 
     @Override
@@ -162,9 +216,8 @@ public class GPHApiClient implements GPHApi {
         if (sort != null) {
             params.put("sort", sort);
         }
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                Constants.Paths.CATEGORIES, HTTP_GET, ListCategoryResponse.class, params, null)
-                .executeAsyncTask(completionHandler);
+        return executeGet(Constants.Paths.CATEGORIES,
+                ListCategoryResponse.class, params, completionHandler);
     }
 
     @Override
@@ -200,10 +253,8 @@ public class GPHApiClient implements GPHApi {
             }
         };
 
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.SUBCATEGORIES, categoryEncodedName), HTTP_GET,
-                ListCategoryResponse.class, params, null)
-                .executeAsyncTask(completionHandlerWrapper);
+        return executeGet(String.format(Constants.Paths.SUBCATEGORIES, categoryEncodedName),
+                ListCategoryResponse.class, params, completionHandlerWrapper);
     }
 
     @Override
@@ -220,21 +271,23 @@ public class GPHApiClient implements GPHApi {
         if (offset != null) {
             params.put("offset", offset.toString());
         }
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.GIFS_BY_CATEGORY, categoryEncodedName,
-                        subCategoryEncodedName), HTTP_GET, ListMediaResponse.class, params, null)
-                .executeAsyncTask(completionHandler);
+        return executeGet(String.format(Constants.Paths.GIFS_BY_CATEGORY, categoryEncodedName, subCategoryEncodedName),
+                ListMediaResponse.class, params, completionHandler);
     }
 
     @Override
     @NonNull
     public Future gifById(@NonNull String gifId,
                           @NonNull final CompletionHandler<MediaResponse> completionHandler) {
+        final GifByIdBatcher batcher = root.gifByIdBatcher;
+        if (batcher != null) {
+            return batcher.add(gifId, priority, completionHandler);
+        }
+
         final Map<String, String> params = new HashMap<>();
         params.put(API_KEY, apiKey);
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.GIF_BY_ID, gifId), HTTP_GET, MediaResponse.class,
-                params, null).executeAsyncTask(completionHandler);
+        return executeGet(String.format(Constants.Paths.GIF_BY_ID, gifId),
+                MediaResponse.class, params, completionHandler);
     }
 
     @Override
@@ -253,9 +306,8 @@ public class GPHApiClient implements GPHApi {
         }
         params.put("ids", str.toString());
 
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                Constants.Paths.GIF_BY_IDS, HTTP_GET, ListMediaResponse.class, params, null)
-                .executeAsyncTask(completionHandler);
+        return executeGet(Constants.Paths.GIF_BY_IDS,
+                ListMediaResponse.class, params, completionHandler);
     }
 
     @NonNull
@@ -264,9 +316,8 @@ public class GPHApiClient implements GPHApi {
         final Map<String, String> params = new HashMap<>();
         params.put(API_KEY, apiKey);
 
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.TERM_SUGGESTIONS, term), HTTP_GET,
-                ListTermSuggestionResponse.class, params, null).executeAsyncTask(completionHandler);
+        return executeGet(String.format(Constants.Paths.TERM_SUGGESTIONS, term),
+                ListTermSuggestionResponse.class, params, completionHandler);
     }
 
     @NonNull
@@ -275,9 +326,8 @@ public class GPHApiClient implements GPHApi {
         final Map<String, String> params = new HashMap<>();
         params.put(API_KEY, apiKey);
 
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                Constants.Paths.STICKER_PACKS, HTTP_GET,
-                ListStickerPacksResponse.class, params, null).executeAsyncTask(completionHandler);
+        return executeGet(Constants.Paths.STICKER_PACKS,
+                ListStickerPacksResponse.class, params, completionHandler);
     }
 
 
@@ -287,9 +337,8 @@ public class GPHApiClient implements GPHApi {
         final Map<String, String> params = new HashMap<>();
         params.put(API_KEY, apiKey);
 
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.STICKER_PACK_CHILDREN, packId), HTTP_GET,
-                ListStickerPacksResponse.class, params, null).executeAsyncTask(completionHandler);
+        return executeGet(String.format(Constants.Paths.STICKER_PACK_CHILDREN, packId),
+                ListStickerPacksResponse.class, params, completionHandler);
     }
 
     @NonNull
@@ -299,9 +348,8 @@ public class GPHApiClient implements GPHApi {
         final Map<String, String> params = new HashMap<>();
         params.put(API_KEY, apiKey);
 
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.STICKER_PACK_BY_ID, packId), HTTP_GET,
-                StickerPackResponse.class, params, null).executeAsyncTask(completionHandler);
+        return executeGet(String.format(Constants.Paths.STICKER_PACK_BY_ID, packId),
+                StickerPackResponse.class, params, completionHandler);
     }
 
     @NonNull
@@ -318,9 +366,8 @@ public class GPHApiClient implements GPHApi {
             params.put("offset", offset.toString());
         }
 
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.STICKERS_BY_PACK_ID, packId), HTTP_GET,
-                ListMediaResponse.class, params, null).executeAsyncTask(completionHandler);
+        return executeGet(String.format(Constants.Paths.STICKERS_BY_PACK_ID, packId),
+                ListMediaResponse.class, params, completionHandler);
     }
 
     @NonNull
@@ -337,9 +384,25 @@ public class GPHApiClient implements GPHApi {
             params.put("offset", offset.toString());
         }
 
-        return networkSessionImpl.queryStringConnection(Constants.SERVER_URL,
-                String.format(Constants.Paths.GIFS_BY_CHANNEL_ID, channelId, mediaTypeToEndpoint(mediaType)), HTTP_GET,
-                ListMediaResponse.class, params, null).executeAsyncTask(completionHandler);
+        return executeGet(String.format(Constants.Paths.GIFS_BY_CHANNEL_ID, channelId, mediaTypeToEndpoint(mediaType)),
+                ListMediaResponse.class, params, completionHandler);
+    }
+
+    /**
+     * Runs a GET request, sharing it with the identical requests already in flight
+     */
+    @NonNull
+    private <T extends GenericResponse> Future executeGet(@NonNull String path, @NonNull Class<T> responseClass,
+                                                         @NonNull Map<String, String> params,
+                                                         @NonNull CompletionHandler<T> completionHandler) {
+        final ApiTask<T> task = networkSessionImpl.queryStringConnection(Constants.SERVER_URL, path, HTTP_GET,
+                responseClass, params, null).setDeadline(root.requestDeadlineMs, TimeUnit.MILLISECONDS);
+        final RequestCoalescer coalescer = root.requestCoalescer;
+        if (coalescer == null) {
+            return task.executeAsyncTask(completionHandler, priority);
+        }
+        return coalescer.execute(responseClass.getName() + " " + RequestKeys.create(path, params), task, priority,
+                completionHandler);
     }
 
     @NonNull
@@ -351,6 +414,43 @@ public class GPHApiClient implements GPHApi {
         }
     }
 
+    /**
+     * Identical requests made while one of them is in flight share its network request and its
+     * result. Enabled by default, random gifs are never shared.
+     * @param enabled false to send every request on its own
+     */
+    public void setRequestCoalescing(boolean enabled) {
+        root.requestCoalescer = enabled ? new RequestCoalescer() : null;
+    }
+
+    public boolean isRequestCoalescing() {
+        return root.requestCoalescer != null;
+    }
+
+    /**
+     * Groups the gifById calls made within a short window into a single gifsByIds request. Gifs
+     * missing from the response are reported to their caller as not found.
+     * @param batchingPolicy how calls are grouped, or null to send every gifById on its own
+     */
+    public void setGifByIdBatching(@Nullable BatchingPolicy batchingPolicy) {
+        final GifByIdBatcher previous = root.gifByIdBatcher;
+        root.gifByIdBatcher = batchingPolicy != null ? new GifByIdBatcher(root, batchingPolicy) : null;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Sets how long each request may take, from the moment it's issued until its response is
+     * decoded. Requests over the deadline fail with a
+     * {@link com.giphy.sdk.core.threading.DeadlineExceededException}.
+     * @param timeout the time allowed, or a negative value for no deadline
+     * @param unit unit of timeout
+     */
+    public void setRequestDeadline(long timeout, @NonNull TimeUnit unit) {
+        root.requestDeadlineMs = timeout < 0 ? -1 : unit.toMillis(timeout);
+    }
+
     public NetworkSession getNetworkSession() {
         return networkSessionImpl;
     }
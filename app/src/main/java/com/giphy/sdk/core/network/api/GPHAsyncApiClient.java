@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.network.api;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.giphy.sdk.core.models.enums.LangType;
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.giphy.sdk.core.models.enums.RatingType;
+import com.giphy.sdk.core.network.response.ListCategoryResponse;
+import com.giphy.sdk.core.network.response.ListMediaResponse;
+import com.giphy.sdk.core.network.response.ListStickerPacksResponse;
+import com.giphy.sdk.core.network.response.ListTermSuggestionResponse;
+import com.giphy.sdk.core.network.response.MediaResponse;
+import com.giphy.sdk.core.network.response.StickerPackResponse;
+import com.giphy.sdk.core.threading.ApiFuture;
+import com.giphy.sdk.core.threading.ApiTask;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Async counterpart of {@link GPHApi} that returns composable {@link ApiFuture}s instead of taking
+ * completion handlers, e.g. to chain a category lookup into its gifs or to time out a search
+ * without blocking a thread. Every call goes through the wrapped client, along with its request
+ * coalescing and batching.
+ */
+public class GPHAsyncApiClient {
+    private final GPHApi api;
+    private final Executor completionExecutor;
+
+    /**
+     * Delivers the results and the timeouts on the main thread
+     * @param api the client running the requests
+     */
+    public GPHAsyncApiClient(@NonNull GPHApi api) {
+        this(api, ApiTask.getCompletionExecutor());
+    }
+
+    /**
+     * @param api the client running the requests
+     * @param completionExecutor the executor the futures are completed on, with the results and
+     *                           the timeouts alike, whatever thread the wrapped client calls back on
+     */
+    public GPHAsyncApiClient(@NonNull GPHApi api, @NonNull Executor completionExecutor) {
+        this.api = api;
+        this.completionExecutor = completionExecutor;
+    }
+
+    @NonNull
+    public ApiFuture<ListMediaResponse> search(@NonNull String searchQuery, @Nullable MediaType type,
+                                               @Nullable Integer limit, @Nullable Integer offset,
+                                               @Nullable RatingType rating, @Nullable LangType lang) {
+        final ApiFuture<ListMediaResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.search(searchQuery, type, limit, offset, rating, lang,
+                handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<ListMediaResponse> trending(@Nullable MediaType type, @Nullable Integer limit,
+                                                 @Nullable Integer offset, @Nullable RatingType rating) {
+        final ApiFuture<ListMediaResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.trending(type, limit, offset, rating, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<MediaResponse> translate(@NonNull String term, @Nullable MediaType type,
+                                              @Nullable RatingType rating, @Nullable LangType lang) {
+        final ApiFuture<MediaResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.translate(term, type, rating, lang, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<MediaResponse> random(@NonNull String tag, @Nullable MediaType type,
+                                           @Nullable RatingType rating) {
+        final ApiFuture<MediaResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.random(tag, type, rating, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<ListCategoryResponse> categoriesForGifs(@Nullable Integer limit,
+                                                             @Nullable Integer offset,
+                                                             @Nullable String sort) {
+        final ApiFuture<ListCategoryResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.categoriesForGifs(limit, offset, sort, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<ListCategoryResponse> subCategoriesForGifs(@NonNull String categoryEncodedName,
+                                                                @Nullable Integer limit,
+                                                                @Nullable Integer offset,
+                                                                @Nullable String sort) {
+        final ApiFuture<ListCategoryResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.subCategoriesForGifs(categoryEncodedName, limit, offset, sort,
+                handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<ListMediaResponse> gifsByCategory(@NonNull String categoryEncodedName,
+                                                       @NonNull String subCategoryEncodedName,
+                                                       @Nullable Integer limit, @Nullable Integer offset,
+                                                       @Nullable RatingType ratingType,
+                                                       @Nullable LangType langType) {
+        final ApiFuture<ListMediaResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.gifsByCategory(categoryEncodedName, subCategoryEncodedName, limit, offset,
+                ratingType, langType, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<MediaResponse> gifById(@NonNull String gifId) {
+        final ApiFuture<MediaResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.gifById(gifId, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<ListMediaResponse> gifsByIds(@NonNull List<String> gifIds) {
+        final ApiFuture<ListMediaResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.gifsByIds(gifIds, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<ListTermSuggestionResponse> termSuggestions(@NonNull String term) {
+        final ApiFuture<ListTermSuggestionResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.termSuggestions(term, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<ListStickerPacksResponse> stickerPacks() {
+        final ApiFuture<ListStickerPacksResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.stickerPacks(handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<ListStickerPacksResponse> stickerPackChildren(@NonNull String packId) {
+        final ApiFuture<ListStickerPacksResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.stickerPackChildren(packId, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<StickerPackResponse> stickerPackById(@NonNull String packId) {
+        final ApiFuture<StickerPackResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.stickerPackById(packId, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<ListMediaResponse> stickersByPackId(@NonNull String packId, @Nullable Integer limit,
+                                                         @Nullable Integer offset) {
+        final ApiFuture<ListMediaResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.stickersByPackId(packId, limit, offset, handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public ApiFuture<ListMediaResponse> channelContent(@NonNull String channelId,
+                                                       @Nullable MediaType mediaType,
+                                                       @Nullable Integer limit, @Nullable Integer offset) {
+        final ApiFuture<ListMediaResponse> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(api.channelContent(channelId, mediaType, limit, offset,
+                handlerFor(future)));
+        return future;
+    }
+
+    @NonNull
+    public GPHApi getApi() {
+        return api;
+    }
+
+    /**
+     * @return a handler completing the future on the completion executor
+     */
+    @NonNull
+    private <V> CompletionHandler<V> handlerFor(@NonNull final ApiFuture<V> future) {
+        return new CompletionHandler<V>() {
+            @Override
+            public void onComplete(final V result, final Throwable e) {
+                completionExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        future.asCompletionHandler().onComplete(result, e);
+                    }
+                });
+            }
+        };
+    }
+}
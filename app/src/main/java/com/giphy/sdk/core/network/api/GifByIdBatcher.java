@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.api;
+
+import android.support.annotation.NonNull;
+
+import com.giphy.sdk.core.models.Media;
+import com.giphy.sdk.core.network.engine.ApiException;
+import com.giphy.sdk.core.network.response.ErrorResponse;
+import com.giphy.sdk.core.network.response.ListMediaResponse;
+import com.giphy.sdk.core.network.response.MediaResponse;
+import com.giphy.sdk.core.threading.Priority;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collects gifById calls for a short window and resolves them with a single gifsByIds request,
+ * handing each caller the gif it asked for. Ids missing from the response fail with the same
+ * not found error gifById reports. The request is queued with the most urgent priority among the
+ * callers of its batch.
+ */
+class GifByIdBatcher {
+    private final GPHApiClient api;
+    private final BatchingPolicy policy;
+    private final ScheduledExecutorService scheduler;
+    private Batch pending;
+
+    GifByIdBatcher(@NonNull GPHApiClient api, @NonNull BatchingPolicy policy) {
+        this.api = api;
+        this.policy = policy;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                final Thread thread = new Thread(runnable, "GifByIdBatcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    @NonNull
+    Future add(@NonNull String gifId, @NonNull Priority priority,
+               @NonNull CompletionHandler<MediaResponse> completionHandler) {
+        final Batch batch;
+        final Caller caller;
+        synchronized (this) {
+            if (pending == null) {
+                final Batch newBatch = new Batch();
+                pending = newBatch;
+                scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush(newBatch);
+                    }
+                }, policy.getWindowMs(), TimeUnit.MILLISECONDS);
+            }
+            batch = pending;
+            caller = batch.add(gifId, priority, completionHandler);
+        }
+        if (batch.size() >= policy.getMaxBatchSize()) {
+            flush(batch);
+        }
+        return caller;
+    }
+
+    /**
+     * Sends the pending batch right away and stops the timer
+     */
+    void close() {
+        final Batch batch;
+        synchronized (this) {
+            batch = pending;
+        }
+        if (batch != null) {
+            flush(batch);
+        }
+        scheduler.shutdown();
+    }
+
+    private void flush(@NonNull Batch batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        }
+        batch.send();
+    }
+
+    private class Batch implements CompletionHandler<ListMediaResponse> {
+        private final Map<String, List<Caller>> callers = new LinkedHashMap<>();
+        private volatile Future future;
+        private Priority priority;
+
+        synchronized Caller add(String gifId, Priority priority,
+                                CompletionHandler<MediaResponse> completionHandler) {
+            if (this.priority == null || priority.ordinal() < this.priority.ordinal()) {
+                this.priority = priority;
+            }
+            List<Caller> idCallers = callers.get(gifId);
+            if (idCallers == null) {
+                idCallers = new ArrayList<>();
+                callers.put(gifId, idCallers);
+            }
+            final Caller caller = new Caller(this, completionHandler);
+            idCallers.add(caller);
+            return caller;
+        }
+
+        synchronized int size() {
+            return callers.size();
+        }
+
+        void send() {
+            final List<String> gifIds = new ArrayList<>();
+            final Priority sendPriority;
+            synchronized (this) {
+                sendPriority = priority;
+                for (Map.Entry<String, List<Caller>> entry : callers.entrySet()) {
+                    if (hasActiveCaller(entry.getValue())) {
+                        gifIds.add(entry.getKey());
+                    }
+                }
+            }
+            if (gifIds.isEmpty()) {
+                return;
+            }
+            try {
+                future = api.withPriority(sendPriority).gifsByIds(gifIds, this);
+            } catch (RuntimeException e) {
+                onComplete(null, e);
+            }
+        }
+
+        @Override
+        public void onComplete(ListMediaResponse result, Throwable e) {
+            final Map<String, Media> mediaById = new HashMap<>();
+            if (result != null && result.getData() != null) {
+                for (Media media : result.getData()) {
+                    if (media != null && media.getId() != null) {
+                        mediaById.put(media.getId(), media);
+                    }
+                }
+            }
+            for (Map.Entry<String, List<Caller>> entry : callers.entrySet()) {
+                final Media media = mediaById.get(entry.getKey());
+                for (Caller caller : entry.getValue()) {
+                    if (result == null) {
+                        caller.complete(null, e);
+                    } else if (media == null) {
+                        final String message = "Gif not found : " + entry.getKey();
+                        caller.complete(null, new ApiException(message,
+                                new ErrorResponse(HttpURLConnection.HTTP_NOT_FOUND, message)));
+                    } else {
+                        final MediaResponse response = new MediaResponse();
+                        response.setData(media);
+                        response.setMeta(result.getMeta());
+                        caller.complete(response, null);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Cancels the request once every caller of the batch gave up on it
+         */
+        void onCallerCancelled(boolean mayInterruptIfRunning) {
+            final Future sent = future;
+            if (sent == null) {
+                return;
+            }
+            synchronized (this) {
+                for (List<Caller> idCallers : callers.values()) {
+                    if (hasActiveCaller(idCallers)) {
+                        return;
+                    }
+                }
+            }
+            sent.cancel(mayInterruptIfRunning);
+        }
+
+        private boolean hasActiveCaller(List<Caller> idCallers) {
+            for (Caller caller : idCallers) {
+                if (!caller.isCancelled()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class Caller implements Future {
+        private final Batch batch;
+        private final CompletionHandler<MediaResponse> completionHandler;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean cancelled;
+
+        Caller(Batch batch, CompletionHandler<MediaResponse> completionHandler) {
+            this.batch = batch;
+            this.completionHandler = completionHandler;
+        }
+
+        void complete(MediaResponse response, Throwable e) {
+            if (cancelled) {
+                return;
+            }
+            done.countDown();
+            completionHandler.onComplete(response, e);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (cancelled || done.getCount() == 0) {
+                return false;
+            }
+            cancelled = true;
+            done.countDown();
+            batch.onCallerCancelled(mayInterruptIfRunning);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        @Override
+        public Object get() throws InterruptedException {
+            done.await();
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, @NonNull TimeUnit unit) throws InterruptedException, TimeoutException {
+            if (!done.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+    }
+}
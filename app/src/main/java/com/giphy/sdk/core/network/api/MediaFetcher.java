@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.api;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.giphy.sdk.core.models.Image;
+import com.giphy.sdk.core.models.RenditionSelector;
+import com.giphy.sdk.core.models.enums.ImageFormat;
+import com.giphy.sdk.core.network.cache.MediaCache;
+import com.giphy.sdk.core.network.engine.ApiException;
+import com.giphy.sdk.core.network.engine.ByteStreamSession;
+import com.giphy.sdk.core.network.engine.DefaultNetworkSession;
+import com.giphy.sdk.core.network.engine.StreamResponse;
+import com.giphy.sdk.core.network.response.ErrorResponse;
+import com.giphy.sdk.core.threading.Deadline;
+import com.giphy.sdk.core.threading.Priority;
+import com.giphy.sdk.core.threading.PriorityThreadPoolExecutor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Downloads the files of the renditions and keeps them in a {@link MediaCache}.
+ *
+ * The files are downloaded on the executors of the network session, and concurrent fetches of the
+ * same file share a single download. Files are stored under the media id, the rendition type and
+ * the format, so the same rendition is reused whichever response it came from.
+ *
+ * Downloads use HTTP ranges: an interrupted download keeps its bytes in the cache and the next
+ * fetch only requests the rest of the file, and {@link #fetchHead} downloads just the start of a
+ * file, e.g. to decode the first frame of an MP4 before the whole file is needed. The kept bytes
+ * are resumed with an If-Range request, so they're replaced if the file changed meanwhile.
+ */
+public class MediaFetcher {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final String RANGE = "Range";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final String IF_RANGE = "If-Range";
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final ByteStreamSession session;
+    private final MediaCache cache;
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    // Notified when a write of the cache ends, wakes the downloads waiting for the same file
+    private final Object editLock = new Object();
+
+    /**
+     * @param directory directory dedicated to the cache
+     * @param maxBytes maximum total size of the cached files
+     */
+    public MediaFetcher(@NonNull File directory, long maxBytes) {
+        this(new DefaultNetworkSession(), directory, maxBytes);
+    }
+
+    /**
+     * @param session the session used to download the files
+     * @param directory directory dedicated to the cache
+     * @param maxBytes maximum total size of the cached files
+     */
+    public MediaFetcher(@NonNull ByteStreamSession session, @NonNull File directory, long maxBytes) {
+        this.session = session;
+        this.cache = new MediaCache(directory, maxBytes);
+    }
+
+    @NonNull
+    public MediaCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Fetches a rendition selected by a {@link RenditionSelector}
+     */
+    @NonNull
+    public Future fetch(@NonNull RenditionSelector.Selection selection, @NonNull Priority priority,
+                        @NonNull CompletionHandler<File> completionHandler) {
+        return fetch(selection.getImage(), selection.getFormat(), priority, completionHandler);
+    }
+
+    @NonNull
+    public Future fetch(@NonNull Image image, @NonNull ImageFormat format,
+                        @NonNull CompletionHandler<File> completionHandler) {
+        return fetch(image, format, PriorityThreadPoolExecutor.DEFAULT_PRIORITY, completionHandler);
+    }
+
+    /**
+     * Returns the cached file of the rendition, downloading it first if needed
+     * @param image the rendition
+     * @param format format of the file
+     * @param priority priority of the download
+     * @param completionHandler notified with the file
+     */
+    @NonNull
+    public Future fetch(@NonNull Image image, @NonNull ImageFormat format, @NonNull Priority priority,
+                        @NonNull CompletionHandler<File> completionHandler) {
+        final String url = RenditionSelector.getUrl(image, format);
+        if (url == null) {
+            throw new IllegalArgumentException("The image has no " + format + " file");
+        }
+        final String key = cacheKey(image, format, url);
+        // Renditions from different responses may have different URLs for the same file
+        return coalescer.execute(key, session.newTask(new Callable<File>() {
+            @Override
+            public File call() throws Exception {
+                return download(Uri.parse(url), key);
+            }
+        }), priority, completionHandler);
+    }
+
+    @NonNull
+    public Future fetchHead(@NonNull Image image, @NonNull ImageFormat format, int length,
+                            @NonNull CompletionHandler<byte[]> completionHandler) {
+        return fetchHead(image, format, length, PriorityThreadPoolExecutor.DEFAULT_PRIORITY, completionHandler);
+    }
+
+    /**
+     * Returns the first bytes of the file of the rendition. The bytes are kept in the cache, and
+     * a later {@link #fetch} of the rendition only downloads the rest of the file.
+     * @param image the rendition
+     * @param format format of the file
+     * @param length number of bytes to return, less are returned if the file is shorter
+     * @param priority priority of the download
+     * @param completionHandler notified with the bytes
+     */
+    @NonNull
+    public Future fetchHead(@NonNull Image image, @NonNull ImageFormat format, final int length,
+                            @NonNull Priority priority, @NonNull CompletionHandler<byte[]> completionHandler) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("length must be positive");
+        }
+        final String url = RenditionSelector.getUrl(image, format);
+        if (url == null) {
+            throw new IllegalArgumentException("The image has no " + format + " file");
+        }
+        final String key = cacheKey(image, format, url);
+        return coalescer.execute(key + " " + length, session.newTask(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                final File cached = cache.get(key);
+                if (cached != null) {
+                    return readHead(cached, length);
+                }
+                return downloadHead(Uri.parse(url), key, length);
+            }
+        }), priority, completionHandler);
+    }
+
+    /**
+     * @return the cached file of the rendition, or null if it isn't downloaded yet
+     */
+    @Nullable
+    public File getCached(@NonNull Image image, @NonNull ImageFormat format) {
+        final String url = RenditionSelector.getUrl(image, format);
+        return url != null ? cache.get(cacheKey(image, format, url)) : null;
+    }
+
+    public void evictAll() {
+        cache.evictAll();
+    }
+
+    @NonNull
+    private File download(@NonNull Uri url, @NonNull String key) throws Exception {
+        final Deadline deadline = Deadline.current();
+        File tempFile;
+        synchronized (editLock) {
+            while (true) {
+                final File cached = cache.get(key);
+                if (cached != null) {
+                    return cached;
+                }
+                tempFile = cache.edit(key);
+                if (tempFile != null) {
+                    break;
+                }
+                // The head of the file is being downloaded, the download continues from its bytes
+                if (deadline == null) {
+                    editLock.wait();
+                } else {
+                    deadline.check();
+                    editLock.wait(Math.max(1, deadline.remainingMillis()));
+                }
+            }
+        }
+        final Transfer transfer = new Transfer(cache.getPartialValidator(key));
+        boolean committed = false;
+        try {
+            fill(url, tempFile, -1, transfer);
+            if (transfer.total >= 0 && tempFile.length() != transfer.total) {
+                throw new IOException("Received " + tempFile.length() + " bytes out of " + transfer.total + " for " + url);
+            }
+            final File file = cache.commit(key);
+            committed = true;
+            if (file == null) {
+                throw new IOException("Unable to store " + key + " in the cache");
+            }
+            return file;
+        } finally {
+            if (!committed) {
+                cache.keepPartial(key, transfer.validator);
+            }
+            endEdit();
+        }
+    }
+
+    @NonNull
+    private byte[] downloadHead(@NonNull Uri url, @NonNull String key, int length) throws Exception {
+        final File tempFile = cache.edit(key);
+        if (tempFile == null) {
+            // The whole file is being downloaded, the head is requested on its own
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(length);
+            final Map<String, String> headers = new HashMap<>();
+            headers.put(RANGE, "bytes=0-" + (length - 1));
+            final StreamResponse response = session.openStream(url, headers);
+            try {
+                if (response.getCode() != HttpURLConnection.HTTP_OK && response.getCode() != HttpURLConnection.HTTP_PARTIAL) {
+                    throw new ApiException(new ErrorResponse(response.getCode(), "Unable to download " + url));
+                }
+                copy(response.getBody(), out, length);
+            } finally {
+                response.close();
+            }
+            return out.toByteArray();
+        }
+        final Transfer transfer = new Transfer(cache.getPartialValidator(key));
+        boolean committed = false;
+        try {
+            fill(url, tempFile, length, transfer);
+            final byte[] head = readHead(tempFile, length);
+            if (transfer.total >= 0 && tempFile.length() == transfer.total) {
+                // The whole file fit in the head
+                committed = cache.commit(key) != null;
+            }
+            return head;
+        } finally {
+            if (!committed) {
+                cache.keepPartial(key, transfer.validator);
+            }
+            endEdit();
+        }
+    }
+
+    private void endEdit() {
+        synchronized (editLock) {
+            editLock.notifyAll();
+        }
+    }
+
+    /**
+     * Appends the missing bytes to the file, resuming from its current length. Bytes that can't
+     * be resumed are deleted.
+     * @param limit number of bytes the file should hold, or -1 for the whole media file
+     * @param transfer holds the validator of the bytes in the file, updated with the response
+     */
+    private void fill(@NonNull Uri url, @NonNull File file, long limit, @NonNull Transfer transfer) throws Exception {
+        while (true) {
+            if (transfer.validator == null) {
+                // Without a validator the kept bytes may belong to another version of the file
+                file.delete();
+            }
+            final long offset = file.length();
+            if (limit >= 0 && offset >= limit) {
+                return;
+            }
+            Map<String, String> headers = null;
+            if (offset > 0 || limit >= 0) {
+                headers = new HashMap<>();
+                headers.put(RANGE, "bytes=" + offset + "-" + (limit >= 0 ? String.valueOf(limit - 1) : ""));
+                if (offset > 0) {
+                    // The whole file is sent instead if it changed
+                    headers.put(IF_RANGE, transfer.validator);
+                }
+            }
+            final StreamResponse response = session.openStream(url, headers);
+            try {
+                final long start;
+                final long total;
+                if (response.getCode() == HttpURLConnection.HTTP_PARTIAL) {
+                    final String contentRange = response.getHeader(CONTENT_RANGE);
+                    final long[] range = parseContentRange(contentRange);
+                    if (range == null || range[0] != offset) {
+                        file.delete();
+                        throw new IOException("Unexpected range " + contentRange + " for " + url);
+                    }
+                    start = offset;
+                    total = range[2];
+                    if (offset == 0) {
+                        transfer.validator = validator(response);
+                    }
+                } else if (response.getCode() == HttpURLConnection.HTTP_OK) {
+                    // The range was ignored or the file changed, the whole file is sent
+                    start = 0;
+                    total = response.getContentLength();
+                    transfer.validator = validator(response);
+                } else if (response.getCode() == HTTP_RANGE_NOT_SATISFIABLE && offset > 0) {
+                    // The kept bytes don't belong to the current file, it's downloaded again
+                    transfer.validator = null;
+                    continue;
+                } else {
+                    throw new ApiException(new ErrorResponse(response.getCode(), "Unable to download " + url));
+                }
+
+                long end = total;
+                if (limit >= 0 && (end < 0 || limit < end)) {
+                    end = limit;
+                }
+                transfer.total = total;
+                final OutputStream out = new FileOutputStream(file, start > 0);
+                try {
+                    copy(response.getBody(), out, end >= 0 ? end - start : -1);
+                } finally {
+                    out.close();
+                }
+                return;
+            } finally {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * @return the strong ETag of the file, or its last modification date, or null if it has
+     * neither. Weak ETags can't validate ranges.
+     */
+    @Nullable
+    private static String validator(@NonNull StreamResponse response) {
+        final String etag = response.getHeader(ETAG);
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return response.getHeader(LAST_MODIFIED);
+    }
+
+    @NonNull
+    private static byte[] readHead(@NonNull File file, int length) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(length, file.length()));
+        final InputStream in = new FileInputStream(file);
+        try {
+            copy(in, out, length);
+        } finally {
+            in.close();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param maxBytes maximum number of bytes to copy, or -1 to copy the whole stream
+     */
+    private static void copy(@NonNull InputStream in, @NonNull OutputStream out, long maxBytes) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = maxBytes >= 0 ? maxBytes : Long.MAX_VALUE;
+        int read;
+        while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Download cancelled");
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    /**
+     * Parses a Content-Range header, e.g. "bytes 0-1023/4096"
+     * @return the first and last positions, and the length of the whole file or -1 if it's
+     * unknown, or null if the header is invalid
+     */
+    @Nullable
+    static long[] parseContentRange(@Nullable String contentRange) {
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return null;
+        }
+        final int dash = contentRange.indexOf('-');
+        final int slash = contentRange.indexOf('/');
+        if (dash < 0 || slash < dash) {
+            return null;
+        }
+        try {
+            final long first = Long.parseLong(contentRange.substring(6, dash).trim());
+            final long last = Long.parseLong(contentRange.substring(dash + 1, slash).trim());
+            final String length = contentRange.substring(slash + 1).trim();
+            return new long[]{first, last, "*".equals(length) ? -1 : Long.parseLong(length)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * State of a download of a file, kept when the download fails
+     */
+    private static class Transfer {
+        // ETag or Last-Modified of the bytes in the file
+        @Nullable
+        String validator;
+        // Length of the whole file, or -1 if it's unknown
+        long total = -1;
+
+        Transfer(@Nullable String validator) {
+            this.validator = validator;
+        }
+    }
+
+    /**
+     * @return a file name made of the media id, the rendition type and the format, or of the MD5
+     * of the URL for the images that don't have them
+     */
+    @NonNull
+    static String cacheKey(@NonNull Image image, @NonNull ImageFormat format, @NonNull String url) {
+        if (image.getMediaId() != null && image.getRenditionType() != null) {
+            final String mediaId = image.getMediaId().replaceAll("[^A-Za-z0-9_-]", "_");
+            return mediaId + "_" + image.getRenditionType().name() + "." + format.name();
+        }
+        try {
+            final byte[] digest = MessageDigest.getInstance("MD5").digest(url.getBytes("UTF-8"));
+            final char[] chars = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                chars[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+                chars[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xf];
+            }
+            return "url_" + new String(chars) + "." + format.name();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
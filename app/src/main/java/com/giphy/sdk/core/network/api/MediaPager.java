@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.api;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.giphy.sdk.core.models.Media;
+import com.giphy.sdk.core.models.Pagination;
+import com.giphy.sdk.core.models.enums.LangType;
+import com.giphy.sdk.core.models.enums.MediaType;
+import com.giphy.sdk.core.models.enums.RatingType;
+import com.giphy.sdk.core.network.response.ListMediaResponse;
+import com.giphy.sdk.core.threading.Priority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a paginated list of gifs page by page, as it's consumed.
+ *
+ * {@link #get(int)} returns the gifs loaded so far and loads the next page once the consumer is
+ * within the prefetch distance of the end, or as decided by the {@link PagePrefetcher} if one is
+ * set. Pages loaded ahead of the consumer are requested with {@link Priority#PREFETCH}.
+ *
+ * Pages are added in order, each one from where the previous one ended, gifs already in the list
+ * are skipped, and the pager stops at the total count reported by the server. When a page carries
+ * a next_cursor, it's passed to the loader of the next page and the pager stops at the first page
+ * without one.
+ */
+public class MediaPager {
+    public static final int DEFAULT_PAGE_SIZE = 25;
+    public static final int DEFAULT_PREFETCH_DISTANCE = 10;
+
+    /**
+     * Requests a page of gifs
+     */
+    public interface PageLoader {
+        /**
+         * @param offset number of gifs already received
+         * @param limit number of gifs to request
+         * @param cursor next_cursor of the previous page, or null
+         * @param priority {@link Priority#PREFETCH} if the page is loaded ahead of the consumer
+         * @param completionHandler notified with the page
+         * @return the future of the request, used to cancel it
+         */
+        Future load(int offset, int limit, @Nullable String cursor, @NonNull Priority priority,
+                    @NonNull CompletionHandler<ListMediaResponse> completionHandler);
+    }
+
+    /**
+     * Notified on the completion executor as the pages are loaded
+     */
+    public interface Listener {
+        void onPageLoaded(@NonNull MediaPager pager, int positionStart, int itemCount);
+
+        void onError(@NonNull MediaPager pager, @NonNull Throwable e);
+    }
+
+    private final PageLoader pageLoader;
+    private final List<Media> items = new ArrayList<>();
+    private final Set<String> ids = new HashSet<>();
+    // Pages being loaded, in order
+    private final List<PageHandler> pendingPages = new ArrayList<>();
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private int prefetchDistance = DEFAULT_PREFETCH_DISTANCE;
+    private PagePrefetcher prefetcher;
+    private Listener listener;
+    private int nextOffset;
+    private int requestOffset;
+    private String nextCursor;
+    private boolean cursorPaging;
+    private int totalCount = -1;
+    private boolean exhausted;
+    private int lastAccessedIndex = -1;
+
+    public MediaPager(@NonNull PageLoader pageLoader) {
+        this.pageLoader = pageLoader;
+    }
+
+    @NonNull
+    public static MediaPager search(@NonNull final GPHApi api, @NonNull final String searchQuery, @Nullable final MediaType type,
+                                    @Nullable final RatingType rating, @Nullable final LangType lang) {
+        return new MediaPager(new PageLoader() {
+            @Override
+            public Future load(int offset, int limit, @Nullable String cursor, @NonNull Priority priority,
+                               @NonNull CompletionHandler<ListMediaResponse> completionHandler) {
+                return withPriority(api, priority).search(searchQuery, type, limit, offset, rating, lang, completionHandler);
+            }
+        });
+    }
+
+    @NonNull
+    public static MediaPager trending(@NonNull final GPHApi api, @Nullable final MediaType type,
+                                      @Nullable final RatingType rating) {
+        return new MediaPager(new PageLoader() {
+            @Override
+            public Future load(int offset, int limit, @Nullable String cursor, @NonNull Priority priority,
+                               @NonNull CompletionHandler<ListMediaResponse> completionHandler) {
+                return withPriority(api, priority).trending(type, limit, offset, rating, completionHandler);
+            }
+        });
+    }
+
+    @NonNull
+    public static MediaPager stickersByPackId(@NonNull final GPHApi api, @NonNull final String packId) {
+        return new MediaPager(new PageLoader() {
+            @Override
+            public Future load(int offset, int limit, @Nullable String cursor, @NonNull Priority priority,
+                               @NonNull CompletionHandler<ListMediaResponse> completionHandler) {
+                return withPriority(api, priority).stickersByPackId(packId, limit, offset, completionHandler);
+            }
+        });
+    }
+
+    @NonNull
+    public static MediaPager channelContent(@NonNull final GPHApi api, @NonNull final String channelId,
+                                            @Nullable final MediaType mediaType) {
+        return new MediaPager(new PageLoader() {
+            @Override
+            public Future load(int offset, int limit, @Nullable String cursor, @NonNull Priority priority,
+                               @NonNull CompletionHandler<ListMediaResponse> completionHandler) {
+                return withPriority(api, priority).channelContent(channelId, mediaType, limit, offset, completionHandler);
+            }
+        });
+    }
+
+    @NonNull
+    private static GPHApi withPriority(@NonNull GPHApi api, @NonNull Priority priority) {
+        return api instanceof GPHApiClient ? ((GPHApiClient) api).withPriority(priority) : api;
+    }
+
+    /**
+     * @param pageSize number of gifs requested per page
+     */
+    public synchronized void setPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        this.pageSize = pageSize;
+    }
+
+    public synchronized int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @param prefetchDistance how close to the end the consumer gets before the next page is
+     *                         loaded, when there's no prefetcher
+     */
+    public synchronized void setPrefetchDistance(int prefetchDistance) {
+        if (prefetchDistance < 0) {
+            throw new IllegalArgumentException("prefetchDistance must not be negative");
+        }
+        this.prefetchDistance = prefetchDistance;
+    }
+
+    public synchronized int getPrefetchDistance() {
+        return prefetchDistance;
+    }
+
+    /**
+     * @param prefetcher adapts the prefetch distance and the number of pages loaded ahead, or null
+     *                   to load one page at the fixed prefetch distance
+     */
+    public synchronized void setPrefetcher(@Nullable PagePrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
+    @Nullable
+    public synchronized PagePrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    public synchronized void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return number of gifs loaded so far
+     */
+    public synchronized int size() {
+        return items.size();
+    }
+
+    /**
+     * Returns a loaded gif, and loads the next pages if the index is within the prefetch distance
+     * of the end.
+     * @param index position of the gif, lower than {@link #size()}
+     * @return the gif
+     */
+    @NonNull
+    public synchronized Media get(int index) {
+        final Media media = items.get(index);
+        lastAccessedIndex = Math.max(lastAccessedIndex, index);
+        if (prefetcher != null) {
+            prefetcher.onAccess(index, System.currentTimeMillis());
+        }
+        prefetchIfNeeded();
+        return media;
+    }
+
+    /**
+     * @return a copy of the gifs loaded so far
+     */
+    @NonNull
+    public synchronized List<Media> getItems() {
+        return new ArrayList<>(items);
+    }
+
+    /**
+     * @return total number of gifs reported by the server, or -1 before the first page
+     */
+    public synchronized int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return false once the last page has been loaded
+     */
+    public synchronized boolean hasMore() {
+        return !exhausted;
+    }
+
+    public synchronized boolean isLoading() {
+        return !pendingPages.isEmpty();
+    }
+
+    /**
+     * Loads the next page unless one is already loading or the last one has been loaded
+     */
+    public synchronized void loadNextPage() {
+        if (pendingPages.isEmpty()) {
+            requestPages(1, Priority.VISIBLE);
+        }
+    }
+
+    /**
+     * Cancels the pages being loaded, they're requested again when the consumer gets close to the end
+     */
+    public synchronized void cancel() {
+        cancelPendingPages();
+    }
+
+    /**
+     * Cancels the pages being loaded and clears the gifs, the next page is the first one
+     */
+    public synchronized void reset() {
+        cancelPendingPages();
+        items.clear();
+        ids.clear();
+        nextOffset = 0;
+        requestOffset = 0;
+        nextCursor = null;
+        cursorPaging = false;
+        totalCount = -1;
+        exhausted = false;
+        lastAccessedIndex = -1;
+        if (prefetcher != null) {
+            prefetcher.reset();
+        }
+    }
+
+    private void prefetchIfNeeded() {
+        if (lastAccessedIndex < 0) {
+            return;
+        }
+        final int distance = prefetcher != null ? prefetcher.getDistance(pageSize) : prefetchDistance;
+        if (lastAccessedIndex >= items.size() - 1 - distance) {
+            // The consumer is waiting for the first page if it's already at the end
+            requestPages(prefetcher != null ? prefetcher.getPagesAhead(pageSize) : 1,
+                    lastAccessedIndex >= items.size() - 1 ? Priority.VISIBLE : Priority.PREFETCH);
+        }
+    }
+
+    private void requestPages(int pages, @NonNull Priority firstPriority) {
+        // The cursor of a page is only known once the previous one has arrived
+        final int maxPages = cursorPaging ? 1 : pages;
+        while (!exhausted && pendingPages.size() < maxPages && (totalCount <= 0 || requestOffset < totalCount)) {
+            final Priority priority = pendingPages.isEmpty() ? firstPriority : Priority.PREFETCH;
+            final PageHandler page = new PageHandler(requestOffset, pageSize, System.currentTimeMillis());
+            pendingPages.add(page);
+            requestOffset += pageSize;
+            page.future = pageLoader.load(page.offset, page.limit, cursorPaging ? nextCursor : null, priority, page);
+        }
+    }
+
+    private void cancelPendingPages() {
+        for (PageHandler page : pendingPages) {
+            if (page.future != null) {
+                page.future.cancel(true);
+            }
+        }
+        pendingPages.clear();
+        requestOffset = nextOffset;
+    }
+
+    private void onPage(@NonNull PageHandler page, @Nullable ListMediaResponse result, @Nullable Throwable e) {
+        final Listener pageListener;
+        final int positionStart;
+        int itemCount = 0;
+        boolean loaded = false;
+        Throwable error = null;
+        synchronized (this) {
+            if (!pendingPages.contains(page)) {
+                return;
+            }
+            page.completed = true;
+            page.result = result;
+            page.error = e;
+            if (prefetcher != null && e == null) {
+                prefetcher.onPageLoaded(System.currentTimeMillis() - page.requestedAt);
+            }
+
+            pageListener = listener;
+            positionStart = items.size();
+            // Pages are added in order, a page loaded early waits for the previous ones
+            while (!pendingPages.isEmpty() && pendingPages.get(0).completed) {
+                final PageHandler head = pendingPages.remove(0);
+                if (head.error != null || head.result == null) {
+                    error = head.error != null ? head.error : new IllegalStateException("Empty page response");
+                    cancelPendingPages();
+                    break;
+                }
+                loaded = true;
+                final int received = head.result.getData() != null ? head.result.getData().size() : 0;
+                itemCount += add(head);
+                if (exhausted || received < head.limit) {
+                    // The following pages were requested for offsets the server didn't reach
+                    cancelPendingPages();
+                    break;
+                }
+            }
+        }
+
+        if (pageListener != null) {
+            if (loaded) {
+                pageListener.onPageLoaded(this, positionStart, itemCount);
+            }
+            if (error != null) {
+                pageListener.onError(this, error);
+            }
+        }
+
+        if (error == null) {
+            synchronized (this) {
+                // The consumer may already be close to the end of the new page
+                prefetchIfNeeded();
+            }
+        }
+    }
+
+    /**
+     * @return number of gifs added to the list
+     */
+    private int add(@NonNull PageHandler page) {
+        final ListMediaResponse result = page.result;
+        final List<Media> data = result.getData() != null ? result.getData() : Collections.<Media>emptyList();
+        int added = 0;
+        for (Media media : data) {
+            // Pages may overlap when gifs are added to the list between two requests
+            if (media != null && (media.getId() == null || ids.add(media.getId()))) {
+                items.add(media);
+                added++;
+            }
+        }
+        nextOffset = page.offset + data.size();
+
+        final Pagination pagination = result.getPagination();
+        if (pagination != null) {
+            totalCount = pagination.getTotalCount();
+            if (pagination.getNextCursor() != null) {
+                cursorPaging = true;
+            }
+            nextCursor = pagination.getNextCursor();
+        }
+        exhausted = data.isEmpty()
+                || (totalCount > 0 && nextOffset >= totalCount)
+                || (cursorPaging && nextCursor == null);
+        return added;
+    }
+
+    private class PageHandler implements CompletionHandler<ListMediaResponse> {
+        final int offset;
+        final int limit;
+        final long requestedAt;
+        Future future;
+        boolean completed;
+        ListMediaResponse result;
+        Throwable error;
+
+        PageHandler(int offset, int limit, long requestedAt) {
+            this.offset = offset;
+            this.limit = limit;
+            this.requestedAt = requestedAt;
+        }
+
+        @Override
+        public void onComplete(ListMediaResponse result, Throwable e) {
+            onPage(this, result, e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.api;
+
+/**
+ * Adapts how far ahead a {@link MediaPager} loads its pages to how fast they're consumed and how
+ * long they take to load. The next page is requested once the consumer is close enough to the end
+ * to reach it before the page arrives, with some headroom. Two pages are requested ahead when the
+ * consumer would go through more than a page while one loads, or when the network is fast.
+ */
+public class PagePrefetcher {
+    public static final int DEFAULT_MIN_DISTANCE = 5;
+    public static final int DEFAULT_MAX_PAGES_AHEAD = 2;
+    public static final long DEFAULT_FAST_NETWORK_LATENCY_MS = 300;
+
+    // Weight of the newest sample in the moving averages
+    private static final float SMOOTHING = 0.3f;
+    // Consumption paused for longer than this restarts the velocity measure
+    private static final long IDLE_MS = 1000;
+    // Margin for the latency and velocity variations
+    private static final float HEADROOM = 1.5f;
+
+    private final int minDistance;
+    private final int maxPagesAhead;
+    private final long fastNetworkLatencyMs;
+    private float itemsPerMs;
+    private float latencyMs = -1;
+    private int lastIndex = -1;
+    private long lastAccessMs;
+
+    public PagePrefetcher() {
+        this(DEFAULT_MIN_DISTANCE, DEFAULT_MAX_PAGES_AHEAD, DEFAULT_FAST_NETWORK_LATENCY_MS);
+    }
+
+    /**
+     * @param minDistance distance from the end under which the next page is always requested
+     * @param maxPagesAhead maximum number of pages loading at once
+     * @param fastNetworkLatencyMs page latency under which the network is considered fast
+     */
+    public PagePrefetcher(int minDistance, int maxPagesAhead, long fastNetworkLatencyMs) {
+        if (minDistance < 0) {
+            throw new IllegalArgumentException("minDistance must not be negative");
+        }
+        if (maxPagesAhead < 1) {
+            throw new IllegalArgumentException("maxPagesAhead must be at least 1");
+        }
+        this.minDistance = minDistance;
+        this.maxPagesAhead = maxPagesAhead;
+        this.fastNetworkLatencyMs = fastNetworkLatencyMs;
+    }
+
+    /**
+     * @return the consumption rate, in items per second
+     */
+    public synchronized float getVelocity() {
+        return itemsPerMs * 1000;
+    }
+
+    /**
+     * @return the average time a page takes to load, or -1 before the first page
+     */
+    public synchronized long getLatencyMs() {
+        return (long) latencyMs;
+    }
+
+    /**
+     * @return how close to the end the consumer gets before the next page is requested
+     */
+    public synchronized int getDistance(int pageSize) {
+        final float expectedLatencyMs = latencyMs < 0 ? 0 : latencyMs;
+        final int distance = minDistance + (int) Math.ceil(itemsPerMs * expectedLatencyMs * HEADROOM);
+        return Math.min(distance, maxPagesAhead * pageSize);
+    }
+
+    /**
+     * @return how many pages should be loading once the distance is reached
+     */
+    public synchronized int getPagesAhead(int pageSize) {
+        if (latencyMs >= 0 && latencyMs <= fastNetworkLatencyMs && itemsPerMs > 0) {
+            return maxPagesAhead;
+        }
+        final int pages = (int) Math.ceil(getDistance(pageSize) / (float) pageSize);
+        return Math.max(1, Math.min(maxPagesAhead, pages));
+    }
+
+    synchronized void onAccess(int index, long now) {
+        if (index <= lastIndex) {
+            return;
+        }
+        final long elapsedMs = now - lastAccessMs;
+        if (lastIndex >= 0 && elapsedMs > 0 && elapsedMs < IDLE_MS) {
+            final float rate = (index - lastIndex) / (float) elapsedMs;
+            itemsPerMs = itemsPerMs == 0 ? rate : itemsPerMs + SMOOTHING * (rate - itemsPerMs);
+        } else if (elapsedMs >= IDLE_MS) {
+            itemsPerMs = 0;
+        }
+        lastIndex = index;
+        lastAccessMs = now;
+    }
+
+    synchronized void onPageLoaded(long pageLatencyMs) {
+        latencyMs = latencyMs < 0 ? pageLatencyMs : latencyMs + SMOOTHING * (pageLatencyMs - latencyMs);
+    }
+
+    synchronized void reset() {
+        itemsPerMs = 0;
+        lastIndex = -1;
+        lastAccessMs = 0;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.api;
+
+import android.support.annotation.NonNull;
+
+import com.giphy.sdk.core.threading.ApiTask;
+import com.giphy.sdk.core.threading.Deadline;
+import com.giphy.sdk.core.threading.Priority;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Shares a single network request between identical calls made while it's in flight, and fans
+ * its result out to every caller's completion handler.
+ *
+ * Each caller gets its own future. Cancelling it only detaches that caller, the request itself
+ * is cancelled once every caller has detached.
+ *
+ * A caller joining a queued request with a more urgent priority moves the request up to that
+ * priority, so that it doesn't wait behind the less urgent requests of the first caller. The
+ * requeued request keeps the deadline it was first issued with.
+ */
+class RequestCoalescer {
+    private final Map<String, Call<?>> calls = new HashMap<>();
+
+    /**
+     * @param key identifies the request, including its params
+     * @param task the request to run if there's no identical one in flight
+     * @param priority priority of the request, a more urgent call joining a request that's still
+     *                 queued requeues it with this priority
+     * @param completionHandler notified with the result of the shared request
+     */
+    @NonNull
+    synchronized <T> Future execute(@NonNull String key, @NonNull ApiTask<T> task, @NonNull Priority priority,
+                                    @NonNull CompletionHandler<T> completionHandler) {
+        @SuppressWarnings("unchecked")
+        Call<T> call = (Call<T>) calls.get(key);
+        if (call == null) {
+            call = new Call<>(key, task, priority, task.newDeadline());
+            calls.put(key, call);
+            call.handlers.add(completionHandler);
+            try {
+                call.future = task.executeAsyncTask(call, priority, null, call.deadline);
+            } catch (RuntimeException e) {
+                calls.remove(key);
+                throw e;
+            }
+        } else {
+            call.handlers.add(completionHandler);
+            if (priority.ordinal() < call.priority.ordinal() && call.task.unqueue(call.future)) {
+                final Future queued = call.future;
+                call.priority = priority;
+                call.future = call.task.executeAsyncTask(call, priority, null, call.deadline);
+                // Releases the callers blocked on the removed run, they move on to the new one
+                queued.cancel(false);
+            }
+        }
+        return new CallerFuture(call, completionHandler);
+    }
+
+    /**
+     * @return the number of requests currently in flight
+     */
+    synchronized int size() {
+        return calls.size();
+    }
+
+    private synchronized void detach(Call<?> call, CompletionHandler<?> completionHandler, boolean mayInterruptIfRunning) {
+        if (!call.handlers.remove(completionHandler) || !call.handlers.isEmpty()) {
+            return;
+        }
+        if (calls.get(call.key) == call) {
+            calls.remove(call.key);
+        }
+        if (call.future != null) {
+            call.future.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    private class Call<T> implements CompletionHandler<T> {
+        final String key;
+        final ApiTask<T> task;
+        final Deadline deadline;
+        final List<CompletionHandler<T>> handlers = new ArrayList<>();
+        Priority priority;
+        volatile Future future;
+
+        Call(String key, ApiTask<T> task, Priority priority, Deadline deadline) {
+            this.key = key;
+            this.task = task;
+            this.deadline = deadline;
+            this.priority = priority;
+        }
+
+        @Override
+        public void onComplete(T result, Throwable e) {
+            final List<CompletionHandler<T>> completionHandlers;
+            synchronized (RequestCoalescer.this) {
+                if (calls.get(key) == this) {
+                    calls.remove(key);
+                }
+                completionHandlers = new ArrayList<>(handlers);
+                handlers.clear();
+            }
+            for (CompletionHandler<T> completionHandler : completionHandlers) {
+                completionHandler.onComplete(result, e);
+            }
+        }
+    }
+
+    private class CallerFuture implements Future {
+        private final Call<?> call;
+        private final CompletionHandler<?> completionHandler;
+        private volatile boolean cancelled;
+
+        CallerFuture(Call<?> call, CompletionHandler<?> completionHandler) {
+            this.call = call;
+            this.completionHandler = completionHandler;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (cancelled || call.future.isDone()) {
+                return false;
+            }
+            cancelled = true;
+            detach(call, completionHandler, mayInterruptIfRunning);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return cancelled || call.future.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            while (true) {
+                if (cancelled) {
+                    throw new CancellationException();
+                }
+                final Future future = call.future;
+                try {
+                    return future.get();
+                } catch (CancellationException e) {
+                    // Requeued with a higher priority
+                    if (call.future == future) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Object get(long timeout, @NonNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            final long end = System.nanoTime() + unit.toNanos(timeout);
+            while (true) {
+                if (cancelled) {
+                    throw new CancellationException();
+                }
+                final Future future = call.future;
+                try {
+                    return future.get(end - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (CancellationException e) {
+                    // Requeued with a higher priority
+                    if (call.future == future) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.cache;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * The caching headers of a response: its validators and the Cache-Control directives that drive
+ * its freshness.
+ */
+public class CacheControl {
+    public static final CacheControl NONE = new CacheControl(null, null, -1, 0, false, false, false);
+
+    private final String etag;
+    private final String lastModified;
+    private final long maxAgeMs;
+    private final long staleWhileRevalidateMs;
+    private final boolean noCache;
+    private final boolean noStore;
+    private final boolean hasDirectives;
+
+    CacheControl(@Nullable String etag, @Nullable String lastModified, long maxAgeMs,
+                 long staleWhileRevalidateMs, boolean noCache, boolean noStore, boolean hasDirectives) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.maxAgeMs = maxAgeMs;
+        this.staleWhileRevalidateMs = staleWhileRevalidateMs;
+        this.noCache = noCache;
+        this.noStore = noStore;
+        this.hasDirectives = hasDirectives;
+    }
+
+    /**
+     * @param cacheControl the Cache-Control header
+     * @param etag the ETag header
+     * @param lastModified the Last-Modified header
+     */
+    @NonNull
+    public static CacheControl parse(@Nullable String cacheControl, @Nullable String etag, @Nullable String lastModified) {
+        long maxAgeMs = -1;
+        long staleWhileRevalidateMs = 0;
+        boolean noCache = false;
+        boolean noStore = false;
+        if (cacheControl != null) {
+            for (String directive : cacheControl.split(",")) {
+                final int separator = directive.indexOf('=');
+                final String name = (separator < 0 ? directive : directive.substring(0, separator))
+                        .trim().toLowerCase(Locale.US);
+                final String value = separator < 0 ? null : directive.substring(separator + 1).trim();
+                if ("max-age".equals(name)) {
+                    maxAgeMs = parseSeconds(value, maxAgeMs);
+                } else if ("stale-while-revalidate".equals(name)) {
+                    staleWhileRevalidateMs = parseSeconds(value, staleWhileRevalidateMs);
+                } else if ("no-cache".equals(name)) {
+                    noCache = true;
+                } else if ("no-store".equals(name)) {
+                    noStore = true;
+                }
+            }
+        }
+        return new CacheControl(emptyToNull(etag), emptyToNull(lastModified), maxAgeMs,
+                staleWhileRevalidateMs, noCache, noStore, cacheControl != null);
+    }
+
+    /**
+     * Applies the headers of a 304 response to the ones stored with the cached response. The
+     * validators and directives that the 304 doesn't repeat are kept.
+     */
+    @NonNull
+    public CacheControl update(@NonNull CacheControl notModified) {
+        final String etag = notModified.etag != null ? notModified.etag : this.etag;
+        final String lastModified = notModified.lastModified != null ? notModified.lastModified : this.lastModified;
+        if (notModified.hasDirectives) {
+            return new CacheControl(etag, lastModified, notModified.maxAgeMs, notModified.staleWhileRevalidateMs,
+                    notModified.noCache, notModified.noStore, true);
+        }
+        return new CacheControl(etag, lastModified, maxAgeMs, staleWhileRevalidateMs, noCache, noStore, hasDirectives);
+    }
+
+    @Nullable
+    public String getEtag() {
+        return etag;
+    }
+
+    @Nullable
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return the max-age directive in milliseconds, or -1 if the response doesn't have one
+     */
+    public long getMaxAgeMs() {
+        return maxAgeMs;
+    }
+
+    /**
+     * @return how long the response can still be served after it goes stale while it's being
+     * revalidated, in milliseconds
+     */
+    public long getStaleWhileRevalidateMs() {
+        return staleWhileRevalidateMs;
+    }
+
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    public boolean isNoStore() {
+        return noStore;
+    }
+
+    /**
+     * @return true if the response can be revalidated with a conditional request
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    boolean hasDirectives() {
+        return hasDirectives;
+    }
+
+    private static long parseSeconds(@Nullable String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            final long seconds = Long.parseLong(value.startsWith("\"") && value.endsWith("\"") && value.length() > 1
+                    ? value.substring(1, value.length() - 1) : value);
+            return seconds < 0 ? defaultValue : seconds * 1000;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    @Nullable
+    private static String emptyToNull(@Nullable String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
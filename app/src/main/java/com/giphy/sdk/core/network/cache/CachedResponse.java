@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.cache;
+
+import android.support.annotation.NonNull;
+
+import com.giphy.sdk.core.network.response.GenericResponse;
+
+/**
+ * A response held by a {@link ResponseCache}, together with what's needed to decide whether it can
+ * be served as is or has to be revalidated first.
+ */
+public class CachedResponse<T extends GenericResponse> {
+    private final T response;
+    private final CacheControl cacheControl;
+    private final long validatedAt;
+    private final long freshnessMs;
+
+    /**
+     * @param response the decoded response
+     * @param cacheControl the caching headers the response came with
+     * @param validatedAt when the response was last received or revalidated
+     * @param freshnessMs how long the response stays fresh after validatedAt
+     */
+    public CachedResponse(@NonNull T response, @NonNull CacheControl cacheControl, long validatedAt, long freshnessMs) {
+        this.response = response;
+        this.cacheControl = cacheControl;
+        this.validatedAt = validatedAt;
+        this.freshnessMs = freshnessMs;
+    }
+
+    @NonNull
+    public T getResponse() {
+        return response;
+    }
+
+    @NonNull
+    public CacheControl getCacheControl() {
+        return cacheControl;
+    }
+
+    public long getValidatedAt() {
+        return validatedAt;
+    }
+
+    /**
+     * @return true if the response can be served without going to the network
+     */
+    public boolean isFresh(long now) {
+        return now < validatedAt + freshnessMs;
+    }
+
+    /**
+     * @return true if the response is stale but can still be served while it's revalidated in
+     * the background
+     */
+    public boolean isWithinStaleWhileRevalidate(long now) {
+        return now < validatedAt + freshnessMs + cacheControl.getStaleWhileRevalidateMs();
+    }
+}
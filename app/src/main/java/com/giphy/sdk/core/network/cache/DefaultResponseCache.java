@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.network.cache;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.giphy.sdk.core.network.api.Constants;
+import com.giphy.sdk.core.network.response.GenericResponse;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Two level response cache: decoded responses are kept in a memory LRU, and their raw bodies in an
+ * optional disk LRU that survives process restarts. Both levels are bounded by the size of the
+ * bodies in bytes.
+ *
+ * Every endpoint is cached for {@link #DEFAULT_TTL_MS} unless configured otherwise with
+ * {@link #setTtl(String, long)} or the server sends a Cache-Control max-age. Stale responses
+ * that have an ETag or Last-Modified validator are kept so they can be revalidated with a
+ * conditional request. Random gifs are never cached.
+ *
+ * Responses served from memory are shared between callers and should not be modified.
+ */
+public class DefaultResponseCache implements ResponseCache {
+    public static final long DEFAULT_TTL_MS = 5 * 60 * 1000L;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final String HEADER_MAGIC = "GPHCache/1";
+    private static final int MAX_HEADER_LINE_LENGTH = 8192;
+    private static final long USE_DEFAULT_TTL = -1;
+    private static final String[] PATH_TEMPLATES = {
+            Constants.Paths.SEARCH, Constants.Paths.TRENDING, Constants.Paths.RANDOM,
+            Constants.Paths.TRANSLATE, Constants.Paths.CATEGORIES, Constants.Paths.SUBCATEGORIES,
+            Constants.Paths.GIFS_BY_CATEGORY, Constants.Paths.GIF_BY_ID, Constants.Paths.GIF_BY_IDS,
+            Constants.Paths.TERM_SUGGESTIONS, Constants.Paths.STICKER_PACKS,
+            Constants.Paths.STICKER_PACK_BY_ID, Constants.Paths.STICKER_PACK_CHILDREN,
+            Constants.Paths.STICKERS_BY_PACK_ID, Constants.Paths.GIFS_BY_CHANNEL_ID
+    };
+
+    private final MemoryLruCache memoryCache;
+    private final DiskLruCache diskCache;
+    private final Map<String, TtlRule> ttlRules = new ConcurrentHashMap<>();
+    private volatile long defaultTtlMs = DEFAULT_TTL_MS;
+
+    /**
+     * Creates a memory only cache
+     * @param memoryMaxBytes maximum size of the bodies kept in memory
+     */
+    public DefaultResponseCache(long memoryMaxBytes) {
+        this(memoryMaxBytes, null, 0);
+    }
+
+    /**
+     * @param memoryMaxBytes maximum size of the bodies kept in memory
+     * @param directory directory holding the disk cache, or null to only cache in memory
+     * @param diskMaxBytes maximum size of the bodies kept on disk
+     */
+    public DefaultResponseCache(long memoryMaxBytes, @Nullable File directory, long diskMaxBytes) {
+        memoryCache = new MemoryLruCache(memoryMaxBytes);
+        diskCache = directory != null ? new DiskLruCache(directory, diskMaxBytes) : null;
+
+        // Every endpoint gets its own rule so that it never falls under a broader template
+        for (String pathTemplate : PATH_TEMPLATES) {
+            setTtl(pathTemplate, USE_DEFAULT_TTL);
+        }
+        setTtl(Constants.Paths.RANDOM, 0);
+    }
+
+    /**
+     * @param ttlMs how long responses of endpoints without a specific ttl stay fresh, 0 to not
+     *              cache them
+     */
+    public void setDefaultTtl(long ttlMs) {
+        defaultTtlMs = ttlMs;
+    }
+
+    /**
+     * Sets how long the responses of an endpoint stay fresh
+     * @param pathTemplate one of the {@link Constants.Paths}, e.g. {@link Constants.Paths#TRENDING}
+     * @param ttlMs freshness lifetime in milliseconds, 0 to not cache the endpoint
+     */
+    public void setTtl(@NonNull String pathTemplate, long ttlMs) {
+        ttlRules.put(pathTemplate, new TtlRule(pathTemplate, ttlMs));
+    }
+
+    /**
+     * @return the lifetime of the most specific rule matching the path, or the default one
+     */
+    long getTtl(@NonNull String path) {
+        TtlRule match = null;
+        for (TtlRule rule : ttlRules.values()) {
+            if (rule.matches(path) && (match == null || rule.specificity > match.specificity)) {
+                match = rule;
+            }
+        }
+        return match != null && match.ttlMs != USE_DEFAULT_TTL ? match.ttlMs : defaultTtlMs;
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends GenericResponse> CachedResponse<T> get(@NonNull String path, @NonNull String key, @NonNull Class<T> responseClass,
+                                                             @NonNull Gson gson) {
+        final long ttlMs = getTtl(path);
+        if (ttlMs <= 0) {
+            return null;
+        }
+        final long now = System.currentTimeMillis();
+
+        // Responses decoded with other settings are decoded again from disk
+        final CachedResponse<?> inMemory = memoryCache.get(key, gson);
+        if (inMemory != null) {
+            if (!responseClass.isInstance(inMemory.getResponse())) {
+                return null;
+            }
+            if (!isUsable(inMemory, now)) {
+                remove(key);
+                return null;
+            }
+            return (CachedResponse<T>) inMemory;
+        }
+
+        if (diskCache == null) {
+            return null;
+        }
+        final String fileName = fileName(key);
+        final File file = diskCache.get(fileName);
+        if (file == null) {
+            return null;
+        }
+        try {
+            final long validatedAt = file.lastModified();
+            final InputStream inputStream = new BufferedInputStream(new FileInputStream(file));
+            try {
+                final CacheControl cacheControl = readHeader(inputStream);
+                if (cacheControl == null) {
+                    throw new IOException("Invalid cache header");
+                }
+                final long freshnessMs = freshnessMs(cacheControl, ttlMs);
+                if (validatedAt + freshnessMs + cacheControl.getStaleWhileRevalidateMs() <= now
+                        && !cacheControl.hasValidators()) {
+                    diskCache.remove(fileName);
+                    return null;
+                }
+                final T response = gson.fromJson(new JsonReader(new InputStreamReader(inputStream, "UTF-8")), responseClass);
+                if (response == null) {
+                    return null;
+                }
+                final CachedResponse<T> cached = new CachedResponse<>(response, cacheControl, validatedAt, freshnessMs);
+                memoryCache.put(key, cached, file.length(), gson);
+                return cached;
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException | JsonParseException e) {
+            Log.e(DefaultResponseCache.class.getName(), "Unable to read cached response " + key, e);
+            diskCache.remove(fileName);
+            return null;
+        }
+    }
+
+    @Nullable
+    @Override
+    public Editor edit(@NonNull String path, @NonNull String key, @NonNull CacheControl cacheControl, @NonNull Gson gson) {
+        final long ttlMs = getTtl(path);
+        if (ttlMs <= 0) {
+            return null;
+        }
+        if (cacheControl.isNoStore()) {
+            remove(key);
+            return null;
+        }
+        return new CacheEditor(key, cacheControl, freshnessMs(cacheControl, ttlMs), gson);
+    }
+
+    /**
+     * The disk copy keeps the directives it was stored with, only its validation time is updated.
+     */
+    @Override
+    public void revalidated(@NonNull String path, @NonNull String key, @NonNull CacheControl cacheControl) {
+        final long now = System.currentTimeMillis();
+        final CachedResponse<?> inMemory = memoryCache.get(key);
+        if (inMemory != null) {
+            memoryCache.update(key, revalidate(inMemory, cacheControl, getTtl(path), now));
+        }
+        if (diskCache != null) {
+            diskCache.touch(fileName(key), now);
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        memoryCache.evictAll();
+        if (diskCache != null) {
+            diskCache.evictAll();
+        }
+    }
+
+    private void remove(@NonNull String key) {
+        memoryCache.remove(key);
+        if (diskCache != null) {
+            diskCache.remove(fileName(key));
+        }
+    }
+
+    /**
+     * @return how long a response stays fresh. The server's max-age wins over the endpoint ttl.
+     */
+    private static long freshnessMs(@NonNull CacheControl cacheControl, long ttlMs) {
+        if (cacheControl.isNoCache()) {
+            return 0;
+        }
+        return cacheControl.getMaxAgeMs() >= 0 ? cacheControl.getMaxAgeMs() : ttlMs;
+    }
+
+    /**
+     * @return true if the response can be served, either right away or after revalidating it
+     */
+    private static boolean isUsable(@NonNull CachedResponse<?> cached, long now) {
+        return cached.isWithinStaleWhileRevalidate(now) || cached.getCacheControl().hasValidators();
+    }
+
+    @NonNull
+    private static <T extends GenericResponse> CachedResponse<T> revalidate(@NonNull CachedResponse<T> cached,
+                                                                           @NonNull CacheControl notModified, long ttlMs, long now) {
+        final CacheControl cacheControl = cached.getCacheControl().update(notModified);
+        return new CachedResponse<>(cached.getResponse(), cacheControl, now, freshnessMs(cacheControl, ttlMs));
+    }
+
+    /**
+     * Disk entries start with a few text lines holding the caching headers, followed by the body
+     */
+    private static void writeHeader(@NonNull OutputStream outputStream, @NonNull CacheControl cacheControl) throws IOException {
+        final StringBuilder header = new StringBuilder()
+                .append(HEADER_MAGIC).append('\n')
+                .append(cacheControl.getMaxAgeMs()).append('\n')
+                .append(cacheControl.getStaleWhileRevalidateMs()).append('\n')
+                .append(cacheControl.isNoCache() ? 1 : 0).append('\n')
+                .append(cacheControl.getEtag() != null ? cacheControl.getEtag() : "").append('\n')
+                .append(cacheControl.getLastModified() != null ? cacheControl.getLastModified() : "").append('\n');
+        outputStream.write(header.toString().getBytes("UTF-8"));
+    }
+
+    @Nullable
+    private static CacheControl readHeader(@NonNull InputStream inputStream) throws IOException {
+        if (!HEADER_MAGIC.equals(readLine(inputStream))) {
+            return null;
+        }
+        try {
+            final long maxAgeMs = Long.parseLong(readLine(inputStream));
+            final long staleWhileRevalidateMs = Long.parseLong(readLine(inputStream));
+            final boolean noCache = "1".equals(readLine(inputStream));
+            final String etag = readLine(inputStream);
+            final String lastModified = readLine(inputStream);
+            if (lastModified == null) {
+                return null;
+            }
+            return new CacheControl(etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified,
+                    maxAgeMs, staleWhileRevalidateMs, noCache, false, true);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a header line without buffering past it, so the body can be read from the same stream
+     */
+    @Nullable
+    private static String readLine(@NonNull InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = inputStream.read()) != '\n') {
+            if (b == -1 || line.size() >= MAX_HEADER_LINE_LENGTH) {
+                return null;
+            }
+            line.write(b);
+        }
+        return line.toString("UTF-8");
+    }
+
+    @NonNull
+    private static String fileName(@NonNull String key) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes("UTF-8"));
+            final char[] chars = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                chars[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+                chars[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xf];
+            }
+            return new String(chars);
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private class CacheEditor implements Editor {
+        private final String key;
+        private final String fileName;
+        private final CacheControl cacheControl;
+        private final long freshnessMs;
+        private final Gson gson;
+        private RecordingInputStream recording;
+        private File tempFile;
+        private boolean done;
+
+        CacheEditor(String key, CacheControl cacheControl, long freshnessMs, Gson gson) {
+            this.key = key;
+            this.fileName = fileName(key);
+            this.cacheControl = cacheControl;
+            this.freshnessMs = freshnessMs;
+            this.gson = gson;
+        }
+
+        @NonNull
+        @Override
+        public InputStream record(@NonNull InputStream body) {
+            OutputStream sink = null;
+            if (diskCache != null) {
+                try {
+                    tempFile = diskCache.newTempFile(fileName);
+                    sink = new BufferedOutputStream(new FileOutputStream(tempFile));
+                    writeHeader(sink, cacheControl);
+                } catch (IOException e) {
+                    // Still cache in memory
+                    Log.e(DefaultResponseCache.class.getName(), "Unable to write cached response " + key, e);
+                    closeQuietly(sink);
+                    sink = null;
+                    deleteTempFile();
+                }
+            }
+            recording = new RecordingInputStream(body, sink);
+            return recording;
+        }
+
+        @Override
+        public void commit(@NonNull GenericResponse response) {
+            if (done || recording == null) {
+                return;
+            }
+            done = true;
+            try {
+                recording.closeSink();
+            } catch (IOException e) {
+                Log.e(DefaultResponseCache.class.getName(), "Unable to write cached response " + key, e);
+                deleteTempFile();
+            }
+            if (tempFile != null) {
+                diskCache.commit(fileName, tempFile);
+            }
+            memoryCache.put(key, new CachedResponse<>(response, cacheControl, System.currentTimeMillis(), freshnessMs),
+                    recording.getByteCount(), gson);
+        }
+
+        @Override
+        public void abort() {
+            if (done) {
+                return;
+            }
+            done = true;
+            if (recording != null) {
+                try {
+                    recording.closeSink();
+                } catch (IOException ignored) {
+                }
+            }
+            deleteTempFile();
+        }
+
+        private void closeQuietly(OutputStream outputStream) {
+            if (outputStream != null) {
+                try {
+                    outputStream.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        private void deleteTempFile() {
+            if (tempFile != null) {
+                tempFile.delete();
+                tempFile = null;
+            }
+        }
+    }
+
+    private static class TtlRule {
+        final Pattern pattern;
+        final int specificity;
+        final long ttlMs;
+
+        TtlRule(String pathTemplate, long ttlMs) {
+            // Path params match a single segment. Templates with more fixed characters win when
+            // several of them match the same path, e.g. v1/gifs/categories over v1/gifs/%s
+            final String[] parts = pathTemplate.split("%s", -1);
+            final StringBuilder regex = new StringBuilder();
+            int literalLength = 0;
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    regex.append("[^/]+");
+                }
+                regex.append(Pattern.quote(parts[i]));
+                literalLength += parts[i].length();
+            }
+            this.pattern = Pattern.compile(regex.toString());
+            this.specificity = literalLength;
+            this.ttlMs = ttlMs;
+        }
+
+        boolean matches(String path) {
+            return pattern.matcher(path).matches();
+        }
+    }
+}
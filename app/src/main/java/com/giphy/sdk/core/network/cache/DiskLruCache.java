@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.network.cache;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps raw response bodies as files in a directory, evicting the least recently used ones once
+ * their total size goes over the limit. Bodies are written to a temporary file first and renamed
+ * into place once complete, so a crash never leaves a truncated entry behind.
+ */
+class DiskLruCache {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private boolean initialized;
+
+    DiskLruCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param name the entry name
+     * @return the file holding the entry, or null if there's none
+     */
+    synchronized File get(String name) {
+        initialize();
+        if (entries.get(name) == null) {
+            return null;
+        }
+        return new File(directory, name);
+    }
+
+    /**
+     * Updates the modification time of the entry, which records when it was last validated
+     */
+    synchronized void touch(String name, long time) {
+        initialize();
+        if (entries.get(name) != null) {
+            new File(directory, name).setLastModified(time);
+        }
+    }
+
+    synchronized File newTempFile(String name) throws IOException {
+        initialize();
+        return File.createTempFile(name, TEMP_SUFFIX, directory);
+    }
+
+    synchronized void commit(String name, File tempFile) {
+        initialize();
+        final File file = new File(directory, name);
+        remove(name);
+        if (!tempFile.renameTo(file)) {
+            tempFile.delete();
+            return;
+        }
+        final long length = file.length();
+        entries.put(name, length);
+        size += length;
+        trimToSize();
+    }
+
+    synchronized void remove(String name) {
+        final Long length = entries.remove(name);
+        if (length != null) {
+            size -= length;
+        }
+        new File(directory, name).delete();
+    }
+
+    synchronized void evictAll() {
+        initialize();
+        for (String name : entries.keySet()) {
+            new File(directory, name).delete();
+        }
+        entries.clear();
+        size = 0;
+    }
+
+    private void trimToSize() {
+        final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxBytes && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            size -= eldest.getValue();
+            new File(directory, eldest.getKey()).delete();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Indexes the existing entries, oldest first, and removes the leftovers of interrupted writes
+     */
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.e(DiskLruCache.class.getName(), "Unable to create cache directory " + directory);
+            return;
+        }
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                final long lhsModified = lhs.lastModified();
+                final long rhsModified = rhs.lastModified();
+                return lhsModified < rhsModified ? -1 : (lhsModified == rhsModified ? 0 : 1);
+            }
+        });
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                file.delete();
+            } else if (file.isFile()) {
+                entries.put(file.getName(), file.length());
+                size += file.length();
+            }
+        }
+        trimToSize();
+    }
+}
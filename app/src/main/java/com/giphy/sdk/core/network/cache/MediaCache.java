@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.cache;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps media files in a directory, evicting the least recently used ones once their total size
+ * goes over the limit.
+ *
+ * Every change is recorded in a journal before it's visible: DIRTY when a file starts being
+ * written, CLEAN with its length once it's complete, REMOVE when it's deleted, and READ when it's
+ * used. On startup the journal is replayed, so the entries keep their order across restarts, and
+ * the files whose writes were interrupted by a crash are deleted. Keys must be valid file names
+ * without spaces.
+ *
+ * A write that stopped part way, e.g. because the connection dropped, can be kept with
+ * {@link #keepPartial} instead of being aborted. The partial file is stored like an entry, and the
+ * next {@link #edit} of the key starts from it so the rest of the file can be appended. A
+ * validator of the file, e.g. its ETag, is kept with the partial file to check that the rest
+ * belongs to the same version.
+ */
+public class MediaCache {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String JOURNAL = "journal";
+    private static final String JOURNAL_TEMP = "journal.tmp";
+    private static final String MAGIC = "GPHMedia/1";
+    private static final String CLEAN = "CLEAN";
+    private static final String DIRTY = "DIRTY";
+    private static final String REMOVE = "REMOVE";
+    private static final String READ = "READ";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String PARTIAL_SUFFIX = ".partial";
+    // Journal lines that no longer matter before the journal is rewritten
+    private static final int COMPACT_THRESHOLD = 2000;
+
+    private final File directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> editing = new HashSet<>();
+    // Validators of the partial files, and of the files being written from them, by key
+    private final Map<String, String> validators = new HashMap<>();
+    private Writer journal;
+    private int redundantOps;
+    private long size;
+    private boolean initialized;
+
+    /**
+     * @param directory directory dedicated to the cache, its other files are deleted
+     * @param maxBytes maximum total size of the files
+     */
+    public MediaCache(@NonNull File directory, long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    @NonNull
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return total size of the files
+     */
+    public synchronized long size() {
+        initialize();
+        return size;
+    }
+
+    /**
+     * @param key the entry key
+     * @return the file of the entry, or null if there's none
+     */
+    @Nullable
+    public synchronized File get(@NonNull String key) {
+        initialize();
+        if (entries.get(key) == null) {
+            return null;
+        }
+        final File file = new File(directory, key);
+        if (!file.isFile()) {
+            remove(key);
+            return null;
+        }
+        append(READ, key, -1, false);
+        return file;
+    }
+
+    /**
+     * Starts writing an entry.
+     * @param key the entry key
+     * @return the file to write, to be passed to {@link #commit}, {@link #keepPartial} or
+     * {@link #abort}, or null if the entry is already being written. It holds the bytes kept by the
+     * last {@link #keepPartial} of the key, and is empty otherwise. The validator of the bytes is
+     * available from {@link #getPartialValidator} until the write ends.
+     */
+    @Nullable
+    public synchronized File edit(@NonNull String key) {
+        initialize();
+        if (!editing.add(key)) {
+            return null;
+        }
+        append(DIRTY, key, -1, true);
+        final File tempFile = new File(directory, key + TEMP_SUFFIX);
+        tempFile.delete();
+        final String partialKey = key + PARTIAL_SUFFIX;
+        // Like any interrupted write, the partial bytes are dropped if the process dies before the
+        // write ends
+        final Long partialLength = entries.remove(partialKey);
+        if (partialLength != null) {
+            size -= partialLength;
+            append(REMOVE, partialKey, -1, true);
+            if (!new File(directory, partialKey).renameTo(tempFile)) {
+                new File(directory, partialKey).delete();
+                validators.remove(key);
+            }
+        } else {
+            validators.remove(key);
+        }
+        return tempFile;
+    }
+
+    /**
+     * @return the number of bytes kept by the last {@link #keepPartial} of the key, or 0 if there
+     * are none
+     */
+    public synchronized long getPartialLength(@NonNull String key) {
+        initialize();
+        final Long length = entries.get(key + PARTIAL_SUFFIX);
+        return length != null ? length : 0;
+    }
+
+    /**
+     * @return the validator passed to the last {@link #keepPartial} of the key, or null if there's
+     * none or the bytes were dropped
+     */
+    @Nullable
+    public synchronized String getPartialValidator(@NonNull String key) {
+        initialize();
+        return validators.get(key);
+    }
+
+    /**
+     * Publishes the written file as the entry
+     * @return the file of the entry, or null if it couldn't be stored, e.g. because it's larger
+     * than the cache
+     */
+    @Nullable
+    public synchronized File commit(@NonNull String key) {
+        initialize();
+        if (!editing.remove(key)) {
+            throw new IllegalStateException("Entry " + key + " isn't being written");
+        }
+        final File tempFile = new File(directory, key + TEMP_SUFFIX);
+        final File file = new File(directory, key);
+        final Long previousLength = entries.remove(key);
+        if (previousLength != null) {
+            size -= previousLength;
+        }
+        validators.remove(key);
+        file.delete();
+        if (!tempFile.renameTo(file)) {
+            tempFile.delete();
+            append(REMOVE, key, -1, true);
+            return null;
+        }
+        final long length = file.length();
+        if (length > maxBytes) {
+            // Would be evicted right away
+            file.delete();
+            append(REMOVE, key, -1, true);
+            return null;
+        }
+        entries.put(key, length);
+        size += length;
+        append(CLEAN, key, length, true);
+        trimToSize();
+        return file;
+    }
+
+    /**
+     * Same as {@link #keepPartial(String, String)} for a file without validator
+     */
+    public void keepPartial(@NonNull String key) {
+        keepPartial(key, null);
+    }
+
+    /**
+     * Ends the write but keeps the written bytes, to be continued by the next {@link #edit}. The
+     * bytes are dropped if a complete version of the entry is already stored.
+     * @param validator identifies the version of the file the bytes belong to, e.g. its ETag
+     */
+    public synchronized void keepPartial(@NonNull String key, @Nullable String validator) {
+        initialize();
+        if (!editing.contains(key)) {
+            return;
+        }
+        final File tempFile = new File(directory, key + TEMP_SUFFIX);
+        final String partialKey = key + PARTIAL_SUFFIX;
+        final File partialFile = new File(directory, partialKey);
+        final long length = tempFile.length();
+        if (length == 0 || length > maxBytes || entries.containsKey(key) || !tempFile.renameTo(partialFile)) {
+            abort(key);
+            return;
+        }
+        editing.remove(key);
+        entries.put(partialKey, length);
+        size += length;
+        if (validator != null) {
+            validators.put(key, validator);
+        } else {
+            validators.remove(key);
+        }
+        append(CLEAN, partialKey, length, false);
+        append(REMOVE, key, -1, true);
+        trimToSize();
+    }
+
+    /**
+     * Drops the written file, the previous version of the entry is kept
+     */
+    public synchronized void abort(@NonNull String key) {
+        initialize();
+        if (!editing.remove(key)) {
+            return;
+        }
+        validators.remove(key);
+        new File(directory, key + TEMP_SUFFIX).delete();
+        final Long length = entries.get(key);
+        if (length != null) {
+            append(CLEAN, key, length, true);
+        } else {
+            append(REMOVE, key, -1, true);
+        }
+    }
+
+    public synchronized void remove(@NonNull String key) {
+        initialize();
+        final Long length = entries.remove(key);
+        if (length != null) {
+            size -= length;
+            append(REMOVE, key, -1, true);
+        }
+        new File(directory, key).delete();
+        if (!key.endsWith(PARTIAL_SUFFIX)) {
+            remove(key + PARTIAL_SUFFIX);
+        } else if (!editing.contains(baseKey(key))) {
+            validators.remove(baseKey(key));
+        }
+    }
+
+    public synchronized void evictAll() {
+        initialize();
+        for (String key : new ArrayList<>(entries.keySet())) {
+            remove(key);
+        }
+    }
+
+    private void trimToSize() {
+        final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        final List<String> evicted = new ArrayList<>();
+        while (size > maxBytes && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            size -= eldest.getValue();
+            new File(directory, eldest.getKey()).delete();
+            evicted.add(eldest.getKey());
+            iterator.remove();
+            if (eldest.getKey().endsWith(PARTIAL_SUFFIX)) {
+                validators.remove(baseKey(eldest.getKey()));
+            }
+        }
+        for (String key : evicted) {
+            append(REMOVE, key, -1, false);
+        }
+        flush();
+    }
+
+    private void append(String op, String key, long length, boolean flush) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.write(length >= 0 ? cleanLine(key, length) : op + ' ' + key + '\n');
+            if (flush) {
+                journal.flush();
+            }
+        } catch (IOException e) {
+            Log.e(MediaCache.class.getName(), "Unable to write the cache journal", e);
+        }
+        if (++redundantOps >= COMPACT_THRESHOLD && redundantOps >= entries.size()) {
+            rewriteJournal();
+        }
+    }
+
+    /**
+     * @return a CLEAN line, with the validator of the file for the partial files
+     */
+    private String cleanLine(String key, long length) {
+        final String validator = key.endsWith(PARTIAL_SUFFIX) ? validators.get(baseKey(key)) : null;
+        if (validator == null) {
+            return CLEAN + ' ' + key + ' ' + length + '\n';
+        }
+        try {
+            return CLEAN + ' ' + key + ' ' + length + ' ' + URLEncoder.encode(validator, "UTF-8") + '\n';
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String baseKey(String partialKey) {
+        return partialKey.substring(0, partialKey.length() - PARTIAL_SUFFIX.length());
+    }
+
+    private void flush() {
+        if (journal != null) {
+            try {
+                journal.flush();
+            } catch (IOException e) {
+                Log.e(MediaCache.class.getName(), "Unable to write the cache journal", e);
+            }
+        }
+    }
+
+    /**
+     * Replays the journal, then removes the files of the interrupted writes and the unknown ones
+     */
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.e(MediaCache.class.getName(), "Unable to create cache directory " + directory);
+            return;
+        }
+
+        final Set<String> dirty = new HashSet<>();
+        final File journalFile = new File(directory, JOURNAL);
+        if (journalFile.isFile()) {
+            try {
+                readJournal(journalFile, dirty);
+            } catch (IOException e) {
+                Log.e(MediaCache.class.getName(), "Unable to read the cache journal, clearing the cache", e);
+                entries.clear();
+            }
+        }
+        for (String key : dirty) {
+            entries.remove(key);
+        }
+        final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Long> entry = iterator.next();
+            if (new File(directory, entry.getKey()).length() != entry.getValue()) {
+                iterator.remove();
+            } else {
+                size += entry.getValue();
+            }
+        }
+        final Iterator<String> validatorKeys = validators.keySet().iterator();
+        while (validatorKeys.hasNext()) {
+            if (!entries.containsKey(validatorKeys.next() + PARTIAL_SUFFIX)) {
+                validatorKeys.remove();
+            }
+        }
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                final String name = file.getName();
+                if (!JOURNAL.equals(name) && !entries.containsKey(name)) {
+                    file.delete();
+                }
+            }
+        }
+        rewriteJournal();
+        trimToSize();
+    }
+
+    private void readJournal(@NonNull File journalFile, @NonNull Set<String> dirty) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(journalFile), UTF_8));
+        try {
+            if (!MAGIC.equals(reader.readLine())) {
+                throw new IOException("Unexpected journal header");
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] parts = line.split(" ");
+                // A line cut by a crash is ignored
+                if (parts.length < 2) {
+                    continue;
+                }
+                final String key = parts[1];
+                if (CLEAN.equals(parts[0]) && (parts.length == 3 || parts.length == 4)) {
+                    try {
+                        final long length = Long.parseLong(parts[2]);
+                        entries.remove(key);
+                        entries.put(key, length);
+                        dirty.remove(key);
+                        if (parts.length == 4) {
+                            validators.put(baseKey(key), URLDecoder.decode(parts[3], "UTF-8"));
+                        } else if (key.endsWith(PARTIAL_SUFFIX)) {
+                            validators.remove(baseKey(key));
+                        }
+                    } catch (IllegalArgumentException ignored) {
+                    }
+                } else if (DIRTY.equals(parts[0])) {
+                    dirty.add(key);
+                } else if (REMOVE.equals(parts[0])) {
+                    entries.remove(key);
+                    dirty.remove(key);
+                } else if (READ.equals(parts[0])) {
+                    entries.get(key);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Writes a journal with a single line per entry, and swaps it with the current one
+     */
+    private void rewriteJournal() {
+        try {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+            final File tempFile = new File(directory, JOURNAL_TEMP);
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), UTF_8));
+            try {
+                writer.write(MAGIC + '\n');
+                for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                    writer.write(cleanLine(entry.getKey(), entry.getValue()));
+                }
+                for (String key : editing) {
+                    writer.write(DIRTY + ' ' + key + '\n');
+                }
+            } finally {
+                writer.close();
+            }
+            final File journalFile = new File(directory, JOURNAL);
+            if (!tempFile.renameTo(journalFile)) {
+                journalFile.delete();
+                if (!tempFile.renameTo(journalFile)) {
+                    throw new IOException("Unable to replace the cache journal");
+                }
+            }
+            journal = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journalFile, true), UTF_8));
+            redundantOps = 0;
+        } catch (IOException e) {
+            Log.e(MediaCache.class.getName(), "Unable to write the cache journal", e);
+        }
+    }
+}
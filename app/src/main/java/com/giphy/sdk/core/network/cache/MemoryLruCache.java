@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.network.cache;
+
+import com.google.gson.Gson;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps decoded responses in memory, evicting the least recently used ones once the size of
+ * their bodies goes over the limit. Each response is kept with the Gson it was decoded with, as
+ * the same body decodes differently depending on the settings of the session.
+ */
+class MemoryLruCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    MemoryLruCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized CachedResponse<?> get(String key) {
+        final Entry entry = entries.get(key);
+        return entry != null ? entry.cached : null;
+    }
+
+    /**
+     * @return the response if it was decoded with the given Gson, null otherwise
+     */
+    synchronized CachedResponse<?> get(String key, Gson decoder) {
+        final Entry entry = entries.get(key);
+        return entry != null && entry.decoder == decoder ? entry.cached : null;
+    }
+
+    synchronized void put(String key, CachedResponse<?> cached, long bytes, Gson decoder) {
+        if (bytes > maxBytes) {
+            remove(key);
+            return;
+        }
+        final Entry previous = entries.put(key, new Entry(cached, bytes, decoder));
+        if (previous != null) {
+            size -= previous.bytes;
+        }
+        size += bytes;
+        trimToSize();
+    }
+
+    /**
+     * Replaces the entry with a revalidated copy of it, if it's still there
+     */
+    synchronized void update(String key, CachedResponse<?> cached) {
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            entries.put(key, new Entry(cached, entry.bytes, entry.decoder));
+        }
+    }
+
+    synchronized void remove(String key) {
+        final Entry previous = entries.remove(key);
+        if (previous != null) {
+            size -= previous.bytes;
+        }
+    }
+
+    synchronized void evictAll() {
+        entries.clear();
+        size = 0;
+    }
+
+    private void trimToSize() {
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (size > maxBytes && iterator.hasNext()) {
+            size -= iterator.next().getValue().bytes;
+            iterator.remove();
+        }
+    }
+
+    private static class Entry {
+        final CachedResponse<?> cached;
+        final long bytes;
+        final Gson decoder;
+
+        Entry(CachedResponse<?> cached, long bytes, Gson decoder) {
+            this.cached = cached;
+            this.bytes = bytes;
+            this.decoder = decoder;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.network.cache;
+
+import android.support.annotation.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Counts and optionally copies every byte read from the wrapped stream.
+ */
+class RecordingInputStream extends FilterInputStream {
+    private OutputStream sink;
+    private long byteCount;
+
+    RecordingInputStream(InputStream in, @Nullable OutputStream sink) {
+        super(in);
+        this.sink = sink;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b != -1) {
+            byteCount++;
+            if (sink != null) {
+                sink.write(b);
+            }
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) throws IOException {
+        final int read = super.read(buffer, offset, count);
+        if (read > 0) {
+            byteCount += read;
+            if (sink != null) {
+                sink.write(buffer, offset, read);
+            }
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Skipped bytes would be missing from the copy, so read them instead
+        final byte[] buffer = new byte[(int) Math.min(n, 4096)];
+        final int read = read(buffer, 0, buffer.length);
+        return Math.max(read, 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Flushes and closes the copy, the wrapped stream stays open
+     */
+    void closeSink() throws IOException {
+        if (sink != null) {
+            try {
+                sink.close();
+            } finally {
+                sink = null;
+            }
+        }
+    }
+}
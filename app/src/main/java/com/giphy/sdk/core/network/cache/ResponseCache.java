@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.network.cache;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.giphy.sdk.core.network.response.GenericResponse;
+import com.google.gson.Gson;
+
+import java.io.InputStream;
+
+/**
+ * A cache of responses used by the network session before going to the network.
+ */
+public interface ResponseCache {
+    /**
+     * Looks up the response stored for the given request. Stale responses are returned as well
+     * so that they can be revalidated.
+     * @param path the request path
+     * @param key identifies the request, including its params
+     * @param responseClass the type the response is decoded to
+     * @param gson decodes the stored response, as configured by the network session
+     * @return the cached response, or null if there's none or it can no longer be used
+     */
+    @Nullable
+    <T extends GenericResponse> CachedResponse<T> get(@NonNull String path, @NonNull String key, @NonNull Class<T> responseClass,
+                                                      @NonNull Gson gson);
+
+    /**
+     * Starts recording a response coming from the network
+     * @param path the request path
+     * @param key identifies the request, including its params
+     * @param cacheControl the caching headers of the response
+     * @param gson decodes the response, {@link #get} only serves the decoded response to the
+     *             same Gson
+     * @return an editor for the response, or null if the response shouldn't be cached
+     */
+    @Nullable
+    Editor edit(@NonNull String path, @NonNull String key, @NonNull CacheControl cacheControl, @NonNull Gson gson);
+
+    /**
+     * Marks the stored response as fresh again after the server answered 304 Not Modified
+     * @param path the request path
+     * @param key identifies the request, including its params
+     * @param cacheControl the caching headers of the 304 response
+     */
+    void revalidated(@NonNull String path, @NonNull String key, @NonNull CacheControl cacheControl);
+
+    /**
+     * Removes all the cached responses
+     */
+    void evictAll();
+
+    /**
+     * Records a single response while it's being decoded.
+     */
+    interface Editor {
+        /**
+         * @param body the response body as read from the network
+         * @return a stream that yields the same bytes as body and records them
+         */
+        @NonNull
+        InputStream record(@NonNull InputStream body);
+
+        /**
+         * Stores the decoded response and the recorded body
+         * @param response the decoded response
+         */
+        void commit(@NonNull GenericResponse response);
+
+        /**
+         * Drops everything recorded so far. Has no effect after commit.
+         */
+        void abort();
+    }
+}
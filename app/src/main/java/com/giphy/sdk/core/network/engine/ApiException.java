@@ -14,6 +14,8 @@ import com.giphy.sdk.core.network.response.ErrorResponse;
 public class ApiException extends Exception {
 
     private final ErrorResponse errorResponse;
+    private int httpStatus;
+    private long retryAfterMs = -1;
 
     public ApiException(ErrorResponse errorResponse) {
         this.errorResponse = errorResponse;
@@ -27,4 +29,24 @@ public class ApiException extends Exception {
     public ErrorResponse getErrorResponse() {
         return errorResponse;
     }
+
+    /**
+     * @return the HTTP status of the response, or 0 if the error didn't come from one
+     */
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    /**
+     * @return the delay asked by the server through a Retry-After header, or -1 if there's none
+     */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+
+    ApiException setHttpResponse(int httpStatus, long retryAfterMs) {
+        this.httpStatus = httpStatus;
+        this.retryAfterMs = retryAfterMs;
+        return this;
+    }
 }
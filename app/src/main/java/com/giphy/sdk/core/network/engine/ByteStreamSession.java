@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.engine;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.giphy.sdk.core.threading.ApiTask;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * A network session that can also stream raw bytes, e.g. to download media files over the same
+ * connections and threads as the API requests.
+ */
+public interface ByteStreamSession {
+    /**
+     * Sends a GET request and returns as soon as the response headers are received. Any status
+     * code is returned, it's up to the caller to check it.
+     * @param url the URL of the file
+     * @param headers extra request headers
+     * @return the response, whose body is read from the network
+     */
+    @NonNull
+    StreamResponse openStream(@NonNull Uri url, @Nullable Map<String, String> headers) throws IOException;
+
+    /**
+     * @return a task run on the executors of the session
+     */
+    @NonNull
+    <V> ApiTask<V> newTask(@NonNull Callable<V> callable);
+}
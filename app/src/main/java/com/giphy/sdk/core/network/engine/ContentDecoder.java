@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.network.engine;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decompresses a response body sent with a given Content-Encoding. Decoders registered on the
+ * network session are advertised in the Accept-Encoding header of every request.
+ */
+public interface ContentDecoder {
+    /**
+     * @return the Content-Encoding token handled by this decoder, e.g. gzip or br
+     */
+    @NonNull
+    String getEncoding();
+
+    /**
+     * Wraps the raw body so that reading from the returned stream yields the decoded bytes
+     * @param inputStream the encoded body as read from the socket
+     * @return a streaming view of the decoded body
+     * @throws IOException
+     */
+    @NonNull
+    InputStream decode(@NonNull InputStream inputStream) throws IOException;
+}
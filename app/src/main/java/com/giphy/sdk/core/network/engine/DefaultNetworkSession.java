@@ -12,135 +12,644 @@ package com.giphy.sdk.core.network.engine;
 import android.net.Uri;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.text.TextUtils;
 import android.util.Log;
 
+import com.giphy.sdk.core.models.ModelTypeAdapterFactory;
+import com.giphy.sdk.core.models.enums.RenditionType;
 import com.giphy.sdk.core.models.json.BooleanDeserializer;
 import com.giphy.sdk.core.models.json.DateDeserializer;
 import com.giphy.sdk.core.models.json.DateSerializer;
 import com.giphy.sdk.core.models.json.IntDeserializer;
-import com.giphy.sdk.core.models.json.MainAdapterFactory;
+import com.giphy.sdk.core.network.api.GPHApiClient;
+import com.giphy.sdk.core.network.cache.CacheControl;
+import com.giphy.sdk.core.network.cache.CachedResponse;
+import com.giphy.sdk.core.network.cache.ResponseCache;
 import com.giphy.sdk.core.network.response.ErrorResponse;
 import com.giphy.sdk.core.network.response.GenericResponse;
 import com.giphy.sdk.core.threading.ApiTask;
+import com.giphy.sdk.core.threading.Deadline;
+import com.giphy.sdk.core.threading.DeadlineExceededException;
+import com.giphy.sdk.core.threading.Priority;
+import com.giphy.sdk.core.threading.PriorityRunnable;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringWriter;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Does the low level GET requests.
  */
-public class DefaultNetworkSession implements NetworkSession {
-    public static final Gson GSON_INSTANCE = new GsonBuilder().registerTypeHierarchyAdapter(Date.class, new DateDeserializer())
-            .registerTypeHierarchyAdapter(Date.class, new DateSerializer())
-            .registerTypeHierarchyAdapter(boolean.class, new BooleanDeserializer())
-            .registerTypeHierarchyAdapter(int.class, new IntDeserializer())
-            .registerTypeAdapterFactory(new MainAdapterFactory())
-            .create();
+public class DefaultNetworkSession implements NetworkSession, ByteStreamSession {
+    public static final Gson GSON_INSTANCE = newGson(null, false);
+
+    public static final int DEFAULT_CONNECT_TIMEOUT_MS = 15 * 1000;
+    public static final int DEFAULT_READ_TIMEOUT_MS = 20 * 1000;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String IDENTITY_ENCODING = "identity";
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    static final String RETRY_AFTER = "Retry-After";
 
     private ExecutorService networkRequestExecutor;
     private Executor completionExecutor;
+    private volatile boolean keepAlive;
+    private volatile Map<String, ContentDecoder> contentDecoders;
+    private volatile String acceptEncoding;
+    private volatile ResponseCache responseCache;
+    private volatile RetryPolicy retryPolicy;
+    private volatile HedgingPolicy hedgingPolicy;
+    private volatile Set<RenditionType> decodedRenditions;
+    private volatile boolean lazyImages;
+    private volatile Gson gson = GSON_INSTANCE;
+    private volatile int connectTimeoutMs = DEFAULT_CONNECT_TIMEOUT_MS;
+    private volatile int readTimeoutMs = DEFAULT_READ_TIMEOUT_MS;
+    private final Set<String> revalidatingKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     public DefaultNetworkSession() {
         networkRequestExecutor = ApiTask.getNetworkRequestExecutor();
         completionExecutor = ApiTask.getCompletionExecutor();
+        setContentDecoders(Arrays.asList(new GzipContentDecoder(), new DeflateContentDecoder()));
     }
 
     public DefaultNetworkSession(ExecutorService networkRequestExecutor, Executor completionExecutor) {
         this.networkRequestExecutor = networkRequestExecutor;
         this.completionExecutor = completionExecutor;
+        setContentDecoders(Arrays.asList(new GzipContentDecoder(), new DeflateContentDecoder()));
+    }
+
+    /**
+     * Returns the connections to the HttpURLConnection pool after each request so that the
+     * following requests to the same host reuse the socket instead of doing a new TCP and TLS
+     * handshake. The pool is shared by the whole process, its size and idle timeout are set with
+     * {@link KeepAlivePolicy#install}.
+     * @param keepAlive false to close the connection after every request
+     */
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * @param connectTimeoutMs how long to wait for a connection to be established, 0 to wait
+     *                         indefinitely. Shortened to fit the deadline of the request if it has one.
+     */
+    public void setConnectTimeout(int connectTimeoutMs) {
+        if (connectTimeoutMs < 0) {
+            throw new IllegalArgumentException("connectTimeoutMs must not be negative");
+        }
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeoutMs;
+    }
+
+    /**
+     * @param readTimeoutMs how long to wait for data on an established connection, 0 to wait
+     *                      indefinitely. Shortened to fit the deadline of the request if it has one.
+     */
+    public void setReadTimeout(int readTimeoutMs) {
+        if (readTimeoutMs < 0) {
+            throw new IllegalArgumentException("readTimeoutMs must not be negative");
+        }
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    public int getReadTimeout() {
+        return readTimeoutMs;
+    }
+
+    /**
+     * Sets the encodings advertised in the Accept-Encoding header and used to decompress the
+     * responses. Defaults to gzip and deflate.
+     * @param decoders the decoders in order of preference, or null to disable compression
+     */
+    public void setContentDecoders(@Nullable List<ContentDecoder> decoders) {
+        final Map<String, ContentDecoder> decodersByEncoding = new LinkedHashMap<>();
+        if (decoders != null) {
+            for (ContentDecoder decoder : decoders) {
+                decodersByEncoding.put(decoder.getEncoding().toLowerCase(Locale.US), decoder);
+            }
+        }
+        contentDecoders = decodersByEncoding;
+        acceptEncoding = decodersByEncoding.isEmpty() ? null : TextUtils.join(", ", decodersByEncoding.keySet());
+    }
+
+    /**
+     * Serves GET requests from the cache when possible, and stores the network responses in it.
+     * Stale responses are revalidated with If-None-Match / If-Modified-Since.
+     * @param responseCache the cache, or null to always go to the network
+     */
+    public void setResponseCache(@Nullable ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Nullable
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Retries the GET requests failing with a connection error or a transient server error.
+     * @param retryPolicy the policy, or null to fail on the first error
+     */
+    public void setRetryPolicy(@Nullable RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    @Nullable
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sends a second identical GET request when a hedged request is slower than most of the
+     * recent ones, and keeps the first response.
+     * @param hedgingPolicy the policy, or null to send every request once
+     */
+    public void setHedgingPolicy(@Nullable HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    @Nullable
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Decodes only the given renditions of the media images, the others are skipped while the
+     * response is parsed and their getters return null. The same applies to the responses read
+     * back from a {@link ResponseCache} disk cache, which keeps every rendition.
+     * @param renditions the renditions to decode, or null for all of them
+     */
+    public synchronized void setDecodedRenditions(@Nullable Set<RenditionType> renditions) {
+        this.decodedRenditions = renditions;
+        this.gson = renditions != null || lazyImages ? newGson(renditions, lazyImages) : GSON_INSTANCE;
+    }
+
+    @Nullable
+    public Set<RenditionType> getDecodedRenditions() {
+        return decodedRenditions;
+    }
+
+    /**
+     * Keeps the renditions of the media images as compact json, and decodes each of them the first
+     * time its getter is called. Saves memory when many media are held but few of their renditions
+     * are used.
+     * @param lazyImages true to decode the renditions on demand
+     */
+    public synchronized void setLazyImages(boolean lazyImages) {
+        this.lazyImages = lazyImages;
+        this.gson = decodedRenditions != null || lazyImages ? newGson(decodedRenditions, lazyImages) : GSON_INSTANCE;
+    }
+
+    public boolean isLazyImages() {
+        return lazyImages;
+    }
+
+    /**
+     * @param renditions the renditions decoded in the media images, or null for all of them
+     * @param lazyImages true to decode the renditions on demand
+     */
+    static Gson newGson(@Nullable Set<RenditionType> renditions, boolean lazyImages) {
+        return new GsonBuilder().registerTypeHierarchyAdapter(Date.class, new DateDeserializer())
+                .registerTypeHierarchyAdapter(Date.class, new DateSerializer())
+                .registerTypeHierarchyAdapter(boolean.class, new BooleanDeserializer())
+                .registerTypeHierarchyAdapter(int.class, new IntDeserializer())
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory(renditions, lazyImages))
+                .create();
     }
 
     @Override
     public <T extends GenericResponse> ApiTask<T> queryStringConnection(@NonNull final Uri serverUrl, @NonNull final String path,
                                                                         @NonNull final String method, @NonNull final Class<T> responseClass, @Nullable final Map<String, String> queryStrings,
                                                                         @Nullable final Map<String, String> headers) {
-        return new ApiTask<>(new Callable<T>() {
+        final Callable<T> callable = new Callable<T>() {
             @Override
             public T call() throws Exception {
-                HttpURLConnection connection = null;
-                URL url = null;
-                try {
-                    Uri.Builder uriBuilder = serverUrl.buildUpon().appendEncodedPath(path);
+                return fetch(serverUrl, path, method, responseClass, queryStrings, headers);
+            }
+        };
+        final HedgingPolicy hedging = hedgingPolicy;
+        if (hedging != null && GPHApiClient.HTTP_GET.equals(method) && hedging.shouldHedge(path, queryStrings)) {
+            return new HedgedApiTask<>(callable, hedging, networkRequestExecutor, completionExecutor);
+        }
+        return new ApiTask<>(callable, networkRequestExecutor, completionExecutor);
+    }
 
-                    if (queryStrings != null) {
-                        for (Map.Entry<String, String> query : queryStrings.entrySet()) {
-                            uriBuilder.appendQueryParameter(query.getKey(), query.getValue());
-                        }
-                    }
+    @NonNull
+    @Override
+    public StreamResponse openStream(@NonNull Uri url, @Nullable Map<String, String> headers) throws IOException {
+        final Deadline deadline = Deadline.current();
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url.toString()).openConnection();
+        connection.setConnectTimeout(timeoutWithin(connectTimeoutMs, deadline));
+        connection.setReadTimeout(timeoutWithin(readTimeoutMs, deadline));
+        // Media files are already compressed, and the content length must match the stored bytes
+        connection.setRequestProperty(ACCEPT_ENCODING, IDENTITY_ENCODING);
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+        }
+        try {
+            return new ConnectionStreamResponse(connection, connection.getResponseCode(), keepAlive);
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
 
-                    url = new URL(uriBuilder.build().toString());
-                    connection = (HttpURLConnection) url.openConnection();
-                    connection.setRequestMethod(method);
+    @NonNull
+    @Override
+    public <V> ApiTask<V> newTask(@NonNull Callable<V> callable) {
+        return new ApiTask<>(callable, networkRequestExecutor, completionExecutor);
+    }
 
-                    if (headers != null) {
-                        for (Map.Entry<String, String> header : headers.entrySet()) {
-                            connection.setRequestProperty(header.getKey(), header.getValue());
-                        }
-                    }
+    /**
+     * Serves the request from the cache when the cached response is fresh. Stale responses are
+     * served right away within their stale-while-revalidate window and refreshed in the
+     * background, otherwise they're revalidated with a conditional request.
+     */
+    private <T extends GenericResponse> T fetch(@NonNull Uri serverUrl, @NonNull String path, @NonNull String method,
+                                                @NonNull Class<T> responseClass, @Nullable Map<String, String> queryStrings,
+                                                @Nullable Map<String, String> headers) throws Exception {
+        final ResponseCache cache = GPHApiClient.HTTP_GET.equals(method) ? responseCache : null;
+        if (cache == null) {
+            return loadWithRetries(serverUrl, path, method, responseClass, queryStrings, headers, null, null, null);
+        }
 
-                    connection.connect();
+        final String cacheKey = RequestKeys.create(path, queryStrings);
+        final CachedResponse<T> cached = cache.get(path, cacheKey, responseClass, gson);
+        if (cached != null) {
+            final long now = System.currentTimeMillis();
+            if (cached.isFresh(now)) {
+                return cached.getResponse();
+            }
+            if (cached.isWithinStaleWhileRevalidate(now)) {
+                revalidateInBackground(serverUrl, path, method, responseClass, queryStrings, headers, cache, cacheKey, cached);
+                return cached.getResponse();
+            }
+        }
+        return loadWithRetries(serverUrl, path, method, responseClass, queryStrings, headers, cache, cacheKey, cached);
+    }
 
-                    return readJsonResponse(url, connection, responseClass);
-                } catch (Throwable t) {
-                    Log.e(NetworkSession.class.getName(), "Unable to perform network request", t);
-                    throw t;
-                } finally {
-                    if (connection != null) {
-                        connection.disconnect();
+    /**
+     * Repeats the GET requests as allowed by the retry policy. The other methods aren't idempotent
+     * and are never retried.
+     */
+    private <T extends GenericResponse> T loadWithRetries(@NonNull Uri serverUrl, @NonNull String path, @NonNull String method,
+                                                          @NonNull Class<T> responseClass, @Nullable Map<String, String> queryStrings,
+                                                          @Nullable Map<String, String> headers, @Nullable ResponseCache cache,
+                                                          @Nullable String cacheKey, @Nullable CachedResponse<T> cached) throws Exception {
+        final RetryPolicy policy = GPHApiClient.HTTP_GET.equals(method) ? retryPolicy : null;
+        final Deadline deadline = Deadline.current();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                final T response = load(serverUrl, path, method, responseClass, queryStrings, headers, cache, cacheKey, cached);
+                if (policy != null) {
+                    policy.onSuccess();
+                }
+                return response;
+            } catch (Exception e) {
+                final long delayMs = policy != null ? policy.onFailure(attempt, e, deadline) : -1;
+                if (delayMs < 0) {
+                    logFailure(path, e);
+                    throw e;
+                }
+                Log.d(NetworkSession.class.getName(), "Retrying " + path + " in " + delayMs + "ms after " + e);
+                // Interrupted when the request is cancelled
+                Thread.sleep(delayMs);
+            }
+        }
+    }
+
+    /**
+     * Logs a request that failed for good. Cancelled requests, e.g. the hedged requests that lost
+     * the race, aren't logged.
+     */
+    static void logFailure(@NonNull String path, @NonNull Throwable t) {
+        if (!Thread.currentThread().isInterrupted()) {
+            Log.e(NetworkSession.class.getName(), "Unable to perform network request " + path, t);
+        }
+    }
+
+    private <T extends GenericResponse> void revalidateInBackground(@NonNull final Uri serverUrl, @NonNull final String path,
+                                                                   @NonNull final String method, @NonNull final Class<T> responseClass,
+                                                                   @Nullable final Map<String, String> queryStrings,
+                                                                   @Nullable final Map<String, String> headers,
+                                                                   @NonNull final ResponseCache cache, @NonNull final String cacheKey,
+                                                                   @NonNull final CachedResponse<T> cached) {
+        // A single revalidation per request is enough, the others keep serving the stale response
+        if (!revalidatingKeys.add(cacheKey)) {
+            return;
+        }
+        try {
+            networkRequestExecutor.execute(new PriorityRunnable(Priority.BACKGROUND) {
+                @Override
+                public void run() {
+                    try {
+                        load(serverUrl, path, method, responseClass, queryStrings, headers, cache, cacheKey, cached);
+                    } catch (Throwable t) {
+                        // The stale response was served anyway
+                        logFailure(path, t);
+                    } finally {
+                        revalidatingKeys.remove(cacheKey);
                     }
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            revalidatingKeys.remove(cacheKey);
+        }
+    }
+
+    private <T extends GenericResponse> T load(@NonNull Uri serverUrl, @NonNull String path, @NonNull String method,
+                                               @NonNull Class<T> responseClass, @Nullable Map<String, String> queryStrings,
+                                               @Nullable Map<String, String> headers, @Nullable ResponseCache cache,
+                                               @Nullable String cacheKey, @Nullable CachedResponse<T> cached) throws Exception {
+        final Deadline deadline = Deadline.current();
+        Future<?> watchdog = null;
+        HttpURLConnection connection = null;
+        URL url = null;
+        try {
+            if (deadline != null) {
+                deadline.check();
+            }
+            Uri.Builder uriBuilder = serverUrl.buildUpon().appendEncodedPath(path);
+
+            if (queryStrings != null) {
+                for (Map.Entry<String, String> query : queryStrings.entrySet()) {
+                    uriBuilder.appendQueryParameter(query.getKey(), query.getValue());
+                }
+            }
+
+            url = new URL(uriBuilder.build().toString());
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(timeoutWithin(connectTimeoutMs, deadline));
+            connection.setReadTimeout(timeoutWithin(readTimeoutMs, deadline));
+
+            if (acceptEncoding != null) {
+                connection.setRequestProperty(ACCEPT_ENCODING, acceptEncoding);
+            }
+
+            if (cached != null) {
+                final CacheControl cacheControl = cached.getCacheControl();
+                if (cacheControl.getEtag() != null) {
+                    connection.setRequestProperty(IF_NONE_MATCH, cacheControl.getEtag());
+                }
+                if (cacheControl.getLastModified() != null) {
+                    connection.setRequestProperty(IF_MODIFIED_SINCE, cacheControl.getLastModified());
+                }
+            }
+
+            if (headers != null) {
+                for (Map.Entry<String, String> header : headers.entrySet()) {
+                    connection.setRequestProperty(header.getKey(), header.getValue());
+                }
+            }
+
+            if (deadline != null) {
+                // The timeouts bound each socket operation, this bounds the request as a whole
+                final HttpURLConnection timedConnection = connection;
+                watchdog = deadline.onExpiry(new Runnable() {
+                    @Override
+                    public void run() {
+                        timedConnection.disconnect();
+                    }
+                });
+            }
+
+            connection.connect();
+
+            final T response = readJsonResponse(url, connection, path, responseClass, cache, cacheKey, cached);
+            // Measured like the hedge delay, from the moment the hedged request started running.
+            // Cache hits don't get here and aren't recorded.
+            final long startedAt = HedgedApiTask.getAttemptStartedAt();
+            final HedgingPolicy hedging = hedgingPolicy;
+            if (startedAt >= 0 && hedging != null) {
+                hedging.recordLatency(System.currentTimeMillis() - startedAt);
+            }
+            return response;
+        } catch (Throwable t) {
+            if (deadline != null && deadline.isExpired() && !(t instanceof DeadlineExceededException)) {
+                throw new DeadlineExceededException(t);
             }
-        }, networkRequestExecutor, completionExecutor);
+            throw t;
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            // Once the body is fully read and closed the connection goes back into the pool
+            if (connection != null && !keepAlive) {
+                connection.disconnect();
+            }
+        }
     }
 
-    private <T extends GenericResponse> T readJsonResponse(URL url, @NonNull HttpURLConnection connection, @NonNull Class<T> responseClass)
+    private <T extends GenericResponse> T readJsonResponse(URL url, @NonNull HttpURLConnection connection, @NonNull String path,
+                                                          @NonNull Class<T> responseClass, @Nullable ResponseCache cache,
+                                                          @Nullable String cacheKey, @Nullable CachedResponse<T> cached)
             throws IOException, ApiException {
 
         int responseCode = connection.getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cache != null && cached != null) {
+            // No body, the cached one is still valid
+            cache.revalidated(path, cacheKey, readCacheControl(connection));
+            return cached.getResponse();
+        }
+
         boolean succeeded = responseCode == HttpURLConnection.HTTP_OK
                 || responseCode == HttpURLConnection.HTTP_CREATED
                 || responseCode == HttpURLConnection.HTTP_ACCEPTED;
-        BufferedReader inputReader;
         if (succeeded) {
-            inputReader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
+            // The settings may change meanwhile, the cache must know the Gson that decoded the response
+            final Gson gson = this.gson;
+            final ResponseCache.Editor cacheEditor = cache != null ? cache.edit(path, cacheKey, readCacheControl(connection), gson) : null;
+            // Decode straight from the socket, the body is never held in memory as a whole
+            InputStream body = decodeBody(connection, connection.getInputStream());
+            if (cacheEditor != null) {
+                body = cacheEditor.record(body);
+            }
+            final JsonReader jsonReader = new JsonReader(new InputStreamReader(body, UTF_8));
+            try {
+                final T response = gson.fromJson(jsonReader, responseClass);
+                if (cacheEditor != null && response != null) {
+                    cacheEditor.commit(response);
+                }
+                return response;
+            } finally {
+                if (cacheEditor != null) {
+                    cacheEditor.abort();
+                }
+                jsonReader.close();
+            }
         } else {
-            inputReader = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
+            final String contents = readString(decodeBody(connection, connection.getErrorStream()));
+            final long retryAfterMs = RetryPolicy.parseRetryAfter(connection.getHeaderField(RETRY_AFTER), System.currentTimeMillis());
+            throw readError(url, responseCode, contents).setHttpResponse(responseCode, retryAfterMs);
         }
-        StringWriter stringWriter = new StringWriter();
+    }
 
-        String line;
-        while ((line = inputReader.readLine()) != null) {
-            stringWriter.append(line);
+    /**
+     * @return the error matching an unsuccessful response, shared with the other sessions
+     */
+    @NonNull
+    static ApiException readError(URL url, int responseCode, @NonNull String contents) {
+        switch (responseCode) {
+            case HttpURLConnection.HTTP_UNAVAILABLE:
+                return new ApiException("503 Exception : URL : " + url + ": Response Code :" + responseCode, new ErrorResponse(responseCode, null));
+            case HttpURLConnection.HTTP_UNAUTHORIZED:
+                // Report if an invalid api key is used
+                Log.e(DefaultNetworkSession.class.toString(), "Api key invalid!");
+            default:
+                try {
+                    return new ApiException(GSON_INSTANCE.fromJson(contents, ErrorResponse.class));
+                } catch (JsonParseException e) {
+                    return new ApiException("Unable to parse server error response : " + url + " : " + contents + " : " + e.getMessage(),
+                            new ErrorResponse(responseCode, contents));
+                }
         }
-        String contents = stringWriter.toString();
-        if (succeeded) {
-            return GSON_INSTANCE.fromJson(contents, responseClass);
-        } else {
-            switch (responseCode) {
-                case HttpURLConnection.HTTP_UNAVAILABLE:
-                    throw new ApiException("503 Exception : URL : " + url + ": Response Code :" + responseCode, new ErrorResponse(responseCode, null));
-                case HttpURLConnection.HTTP_UNAUTHORIZED:
-                    // Report if an invalid api key is used
-                    Log.e(getClass().toString(), "Api key invalid!");
-                default:
-                    try {
-                        throw new ApiException(GSON_INSTANCE.fromJson(contents, ErrorResponse.class));
-                    } catch (JsonParseException e) {
-                        throw new ApiException("Unable to parse server error response : " + url + " : " + contents + " : " + e.getMessage(),
-                                new ErrorResponse(responseCode, contents));
-                    }
+    }
+
+    /**
+     * Wraps the body into the decoder matching its Content-Encoding so that it's decompressed
+     * while being read.
+     */
+    private InputStream decodeBody(@NonNull HttpURLConnection connection, @Nullable InputStream body) throws IOException {
+        final String encoding = connection.getContentEncoding();
+        if (body == null || encoding == null || IDENTITY_ENCODING.equalsIgnoreCase(encoding.trim())) {
+            return body;
+        }
+        final ContentDecoder decoder = contentDecoders.get(encoding.trim().toLowerCase(Locale.US));
+        if (decoder == null) {
+            throw new IOException("Unsupported Content-Encoding : " + encoding);
+        }
+        return decoder.decode(body);
+    }
+
+    /**
+     * @return the timeout, shortened to the time left before the deadline
+     */
+    private static int timeoutWithin(int timeoutMs, @Nullable Deadline deadline) {
+        if (deadline == null) {
+            return timeoutMs;
+        }
+        final long remainingMs = Math.max(1, deadline.remainingMillis());
+        return (int) (timeoutMs == 0 ? Math.min(remainingMs, Integer.MAX_VALUE) : Math.min(remainingMs, timeoutMs));
+    }
+
+    @NonNull
+    private static CacheControl readCacheControl(@NonNull HttpURLConnection connection) {
+        return CacheControl.parse(connection.getHeaderField(CACHE_CONTROL), connection.getHeaderField(ETAG),
+                connection.getHeaderField(LAST_MODIFIED));
+    }
+
+    @NonNull
+    private static String readString(@Nullable InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            return "";
+        }
+        final BufferedReader inputReader = new BufferedReader(new InputStreamReader(inputStream, UTF_8));
+        final StringWriter stringWriter = new StringWriter();
+        try {
+            String line;
+            while ((line = inputReader.readLine()) != null) {
+                stringWriter.append(line);
+            }
+        } finally {
+            inputReader.close();
+        }
+        return stringWriter.toString();
+    }
+
+    private static class ConnectionStreamResponse implements StreamResponse {
+        private final HttpURLConnection connection;
+        private final int code;
+        private final boolean keepAlive;
+        private InputStream body;
+
+        ConnectionStreamResponse(@NonNull HttpURLConnection connection, int code, boolean keepAlive) {
+            this.connection = connection;
+            this.code = code;
+            this.keepAlive = keepAlive;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Nullable
+        @Override
+        public String getHeader(@NonNull String name) {
+            return connection.getHeaderField(name);
+        }
+
+        @Override
+        public long getContentLength() {
+            final String contentLength = connection.getHeaderField("Content-Length");
+            try {
+                return contentLength != null ? Long.parseLong(contentLength.trim()) : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        @NonNull
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = code < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream() : connection.getErrorStream();
+                if (body == null) {
+                    body = new ByteArrayInputStream(new byte[0]);
+                }
+            }
+            return body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (body != null) {
+                    body.close();
+                }
+            } finally {
+                if (!keepAlive) {
+                    connection.disconnect();
+                }
             }
         }
     }
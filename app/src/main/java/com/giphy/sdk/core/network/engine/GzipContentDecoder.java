@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.network.engine;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decodes gzip compressed response bodies.
+ */
+public class GzipContentDecoder implements ContentDecoder {
+    @NonNull
+    @Override
+    public String getEncoding() {
+        return "gzip";
+    }
+
+    @NonNull
+    @Override
+    public InputStream decode(@NonNull InputStream inputStream) throws IOException {
+        return new GZIPInputStream(inputStream);
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.engine;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.giphy.sdk.core.network.api.CompletionHandler;
+import com.giphy.sdk.core.threading.ApiTask;
+import com.giphy.sdk.core.threading.Deadline;
+import com.giphy.sdk.core.threading.Priority;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the request a second time if it hasn't answered within the delay of its
+ * {@link HedgingPolicy}. The first response wins and the other request is cancelled through its
+ * future. An error is only reported once both requests have failed.
+ *
+ * The delay and the response times recorded in the policy are both measured from the moment a
+ * request starts running, so the time spent in the executor queue never triggers a hedge. The
+ * requests that lose the race are recorded with the time they ran, so that the slow ones still
+ * count.
+ *
+ * Only the async executions are hedged, {@link #executeImmediately()} runs a single request.
+ */
+class HedgedApiTask<V> extends ApiTask<V> {
+    private static ScheduledExecutorService HEDGE_TIMER;
+    private static final ThreadLocal<Long> ATTEMPT_STARTED_AT = new ThreadLocal<>();
+
+    private final Callable<V> callable;
+    private final HedgingPolicy hedgingPolicy;
+    private final ExecutorService networkRequestExecutor;
+    private final Executor completionExecutor;
+
+    HedgedApiTask(Callable<V> callable, @NonNull HedgingPolicy hedgingPolicy,
+                  ExecutorService networkRequestExecutor, Executor completionExecutor) {
+        super(callable, networkRequestExecutor, completionExecutor);
+        this.callable = callable;
+        this.hedgingPolicy = hedgingPolicy;
+        this.networkRequestExecutor = networkRequestExecutor;
+        this.completionExecutor = completionExecutor;
+    }
+
+    /**
+     * @return when the hedged request running on the current thread started, or -1 if there's none
+     */
+    static long getAttemptStartedAt() {
+        final Long startedAt = ATTEMPT_STARTED_AT.get();
+        return startedAt != null ? startedAt : -1;
+    }
+
+    @Override
+    public Future executeAsyncTask(final CompletionHandler<V> completionHandler, @NonNull Priority priority,
+                                   @Nullable String shedKey, @Nullable Deadline deadline) {
+        // Both requests share the deadline of the call
+        final HedgedCall call = new HedgedCall(completionHandler, priority, deadline);
+        call.start(0, newAttempt(call, 0).executeAsyncTask(call.attempt(0), priority, shedKey, deadline));
+        return call;
+    }
+
+    /**
+     * @return a task running the request once for the call
+     */
+    private ApiTask<V> newAttempt(final HedgedCall call, final int index) {
+        return new ApiTask<>(new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+                final long startedAt = System.currentTimeMillis();
+                call.onAttemptStarted(index, startedAt);
+                ATTEMPT_STARTED_AT.set(startedAt);
+                try {
+                    return callable.call();
+                } finally {
+                    ATTEMPT_STARTED_AT.remove();
+                }
+            }
+        }, networkRequestExecutor, completionExecutor);
+    }
+
+    private void hedge(HedgedCall call) {
+        synchronized (call) {
+            if (call.finished) {
+                return;
+            }
+            call.pending++;
+        }
+        // The hedged request must not shed the first one from the queue
+        call.start(1, newAttempt(call, 1).executeAsyncTask(call.attempt(1), call.priority, null, call.deadline));
+    }
+
+    private static synchronized ScheduledExecutorService getHedgeTimer() {
+        if (HEDGE_TIMER == null) {
+            HEDGE_TIMER = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "Hedged request timer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return HEDGE_TIMER;
+    }
+
+    private class HedgedCall implements Future {
+        private final CompletionHandler<V> completionHandler;
+        final Priority priority;
+        final Deadline deadline;
+        private final Future[] futures = new Future[2];
+        // When each request started running, and whether it completed
+        private final long[] startedAt = {-1, -1};
+        private final boolean[] completed = new boolean[2];
+        private final CountDownLatch done = new CountDownLatch(1);
+        Future timer;
+        int pending = 1;
+        boolean finished;
+        boolean cancelled;
+
+        HedgedCall(CompletionHandler<V> completionHandler, Priority priority, Deadline deadline) {
+            this.completionHandler = completionHandler;
+            this.priority = priority;
+            this.deadline = deadline;
+        }
+
+        CompletionHandler<V> attempt(final int index) {
+            return new CompletionHandler<V>() {
+                @Override
+                public void onComplete(V result, Throwable e) {
+                    onAttemptComplete(index, result, e);
+                }
+            };
+        }
+
+        /**
+         * Starts the hedge delay once the first request leaves the queue
+         */
+        synchronized void onAttemptStarted(int index, long now) {
+            startedAt[index] = now;
+            if (index == 0 && !finished) {
+                timer = getHedgeTimer().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        hedge(HedgedCall.this);
+                    }
+                }, hedgingPolicy.getHedgeDelayMs(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        void start(int index, Future future) {
+            synchronized (this) {
+                futures[index] = future;
+                if (!finished) {
+                    return;
+                }
+            }
+            // Lost the race before it was even started
+            future.cancel(true);
+        }
+
+        private void onAttemptComplete(int index, V result, Throwable e) {
+            synchronized (this) {
+                completed[index] = true;
+                if (finished) {
+                    return;
+                }
+                pending--;
+                // An error waits for the other request if it's running, a failure of the first
+                // request before the delay is reported right away rather than hedged
+                if (e != null && pending > 0) {
+                    return;
+                }
+                if (e == null) {
+                    recordLosers();
+                }
+                finish();
+            }
+            completionHandler.onComplete(result, e);
+            done.countDown();
+        }
+
+        /**
+         * Records the time the requests that are still running have taken so far, they'd have
+         * taken longer
+         */
+        private void recordLosers() {
+            final long now = System.currentTimeMillis();
+            for (int i = 0; i < startedAt.length; i++) {
+                if (startedAt[i] >= 0 && !completed[i]) {
+                    hedgingPolicy.recordLatency(now - startedAt[i]);
+                }
+            }
+        }
+
+        /**
+         * Stops the timer and cancels the requests still running
+         */
+        private void finish() {
+            finished = true;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            for (Future future : futures) {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            synchronized (this) {
+                if (finished) {
+                    return false;
+                }
+                cancelled = true;
+                finish();
+            }
+            done.countDown();
+            return true;
+        }
+
+        @Override
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            done.await();
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, @NonNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (!done.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.engine;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.giphy.sdk.core.network.api.Constants;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Describes which GET requests are hedged and when: if a hedged request hasn't answered within
+ * the given percentile of the recent response times, an identical request is sent and the first
+ * response wins.
+ *
+ * By default the term suggestions and the first page of search results are hedged, override
+ * {@link #shouldHedge(String, Map)} to choose other requests.
+ */
+public class HedgingPolicy {
+    public static final float DEFAULT_PERCENTILE = 0.95f;
+    public static final long DEFAULT_MIN_DELAY_MS = 50;
+    public static final long DEFAULT_MAX_DELAY_MS = 1000;
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    // Until then the maximum delay is used
+    private static final int MIN_SAMPLES = 20;
+
+    private static final String TERM_SUGGESTIONS_PATH = String.format(Constants.Paths.TERM_SUGGESTIONS, "");
+    private static final String GIFS_SEARCH_PATH = String.format(Constants.Paths.SEARCH, "gifs");
+    private static final String STICKERS_SEARCH_PATH = String.format(Constants.Paths.SEARCH, "stickers");
+
+    private final float percentile;
+    private final long minDelayMs;
+    private final long maxDelayMs;
+    private final long[] latencies;
+    private int sampleCount;
+    private int nextSample;
+
+    public HedgingPolicy() {
+        this(DEFAULT_PERCENTILE, DEFAULT_MIN_DELAY_MS, DEFAULT_MAX_DELAY_MS, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param percentile percentile of the recent response times after which the request is hedged,
+     *                   between 0 and 1
+     * @param minDelayMs minimum delay before hedging
+     * @param maxDelayMs maximum delay before hedging, also used until enough response times are known
+     * @param windowSize number of recent response times the percentile is computed on
+     */
+    public HedgingPolicy(float percentile, long minDelayMs, long maxDelayMs, int windowSize) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be within (0, 1]");
+        }
+        if (minDelayMs < 0 || maxDelayMs < minDelayMs) {
+            throw new IllegalArgumentException("delays must satisfy 0 <= minDelayMs <= maxDelayMs");
+        }
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be at least 1");
+        }
+        this.percentile = percentile;
+        this.minDelayMs = minDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.latencies = new long[windowSize];
+    }
+
+    public float getPercentile() {
+        return percentile;
+    }
+
+    public long getMinDelayMs() {
+        return minDelayMs;
+    }
+
+    public long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+
+    /**
+     * @param path path of the request
+     * @param queryStrings params of the request
+     * @return true if the request should be hedged
+     */
+    public boolean shouldHedge(@NonNull String path, @Nullable Map<String, String> queryStrings) {
+        if (path.startsWith(TERM_SUGGESTIONS_PATH)) {
+            return true;
+        }
+        if (GIFS_SEARCH_PATH.equals(path) || STICKERS_SEARCH_PATH.equals(path)) {
+            final String offset = queryStrings != null ? queryStrings.get("offset") : null;
+            return offset == null || "0".equals(offset);
+        }
+        return false;
+    }
+
+    /**
+     * @return how long to wait for a response before sending the hedged request
+     */
+    public synchronized long getHedgeDelayMs() {
+        if (sampleCount < Math.min(MIN_SAMPLES, latencies.length)) {
+            return maxDelayMs;
+        }
+        final long[] sorted = Arrays.copyOf(latencies, sampleCount);
+        Arrays.sort(sorted);
+        final int index = Math.max(0, (int) Math.ceil(percentile * sampleCount) - 1);
+        return Math.max(minDelayMs, Math.min(maxDelayMs, sorted[index]));
+    }
+
+    synchronized void recordLatency(long latencyMs) {
+        latencies[nextSample] = latencyMs;
+        nextSample = (nextSample + 1) % latencies.length;
+        sampleCount = Math.min(sampleCount + 1, latencies.length);
+    }
+}
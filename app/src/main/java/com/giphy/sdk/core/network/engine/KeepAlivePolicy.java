@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.network.engine;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Describes how idle HTTP connections are kept alive and reused between requests.
+ *
+ * With {@link OkHttpNetworkSession#OkHttpNetworkSession(KeepAlivePolicy)} the policy sizes the
+ * connection pool of that session.
+ *
+ * HttpURLConnection, used by {@link DefaultNetworkSession}, has a single pool for the whole
+ * process, shared with every other user of HttpURLConnection in the app. It reads its settings
+ * from the http.keepAlive, http.maxConnections and http.keepAliveDuration system properties only
+ * once, when the first connection is opened, so {@link #install} has to be called before any
+ * request is issued and only the first policy installed is used.
+ */
+public class KeepAlivePolicy {
+    private static KeepAlivePolicy installed;
+
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    public static final long DEFAULT_KEEP_ALIVE_DURATION_MS = 5 * 60 * 1000L;
+
+    private final int maxIdleConnections;
+    private final long keepAliveDurationMs;
+
+    public KeepAlivePolicy() {
+        this(DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_DURATION_MS);
+    }
+
+    /**
+     * @param maxIdleConnections maximum number of idle connections kept in the pool, per host for
+     *                           HttpURLConnection and in total for OkHttp
+     * @param keepAliveDurationMs how long an idle connection is kept before being evicted
+     */
+    public KeepAlivePolicy(int maxIdleConnections, long keepAliveDurationMs) {
+        if (maxIdleConnections < 1) {
+            throw new IllegalArgumentException("maxIdleConnections must be at least 1");
+        }
+        if (keepAliveDurationMs <= 0) {
+            throw new IllegalArgumentException("keepAliveDurationMs must be positive");
+        }
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveDurationMs = keepAliveDurationMs;
+    }
+
+    /**
+     * @return maximum number of idle connections kept in the pool
+     */
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    /**
+     * @return how long an idle connection is kept before being evicted, in milliseconds
+     */
+    public long getKeepAliveDurationMs() {
+        return keepAliveDurationMs;
+    }
+
+    /**
+     * Sets the settings of the process wide HttpURLConnection pool. Has no effect if a connection
+     * was already opened.
+     * @param policy the pool settings
+     * @return false if a policy was already installed, the new one is then ignored
+     */
+    public static synchronized boolean install(@NonNull KeepAlivePolicy policy) {
+        if (installed != null) {
+            return false;
+        }
+        System.setProperty("http.keepAlive", "true");
+        System.setProperty("http.maxConnections", String.valueOf(policy.maxIdleConnections));
+        System.setProperty("http.keepAliveDuration", String.valueOf(policy.keepAliveDurationMs));
+        installed = policy;
+        return true;
+    }
+
+    /**
+     * @return the policy set with {@link #install}, or null if there's none
+     */
+    @Nullable
+    public static synchronized KeepAlivePolicy getInstalled() {
+        return installed;
+    }
+}
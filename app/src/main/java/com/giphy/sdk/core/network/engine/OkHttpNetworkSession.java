@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.engine;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.giphy.sdk.core.models.enums.RenditionType;
+import com.giphy.sdk.core.network.response.GenericResponse;
+import com.giphy.sdk.core.threading.ApiTask;
+import com.giphy.sdk.core.threading.Deadline;
+import com.giphy.sdk.core.threading.DeadlineExceededException;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Does the low level requests with OkHttp. Parallel requests to the same host share a single
+ * multiplexed HTTP/2 connection when the server supports it, the connections are pooled, and the
+ * responses are decoded while they're streamed. The protocols, the connection pool and the
+ * timeouts are configured on the client passed to the constructor.
+ *
+ * OkHttp is an optional dependency of the SDK, add com.squareup.okhttp3:okhttp to the app to use
+ * this session.
+ */
+public class OkHttpNetworkSession implements NetworkSession, ByteStreamSession {
+    private final OkHttpClient client;
+    private final ExecutorService networkRequestExecutor;
+    private final Executor completionExecutor;
+    private volatile Set<RenditionType> decodedRenditions;
+    private volatile boolean lazyImages;
+    private volatile Gson gson = DefaultNetworkSession.GSON_INSTANCE;
+
+    public OkHttpNetworkSession() {
+        this(new OkHttpClient());
+    }
+
+    /**
+     * @param keepAlivePolicy sizes the connection pool of the session
+     */
+    public OkHttpNetworkSession(@NonNull KeepAlivePolicy keepAlivePolicy) {
+        this(new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(keepAlivePolicy.getMaxIdleConnections(),
+                        keepAlivePolicy.getKeepAliveDurationMs(), TimeUnit.MILLISECONDS))
+                .build());
+    }
+
+    public OkHttpNetworkSession(@NonNull OkHttpClient client) {
+        this(client, ApiTask.getNetworkRequestExecutor(), ApiTask.getCompletionExecutor());
+    }
+
+    public OkHttpNetworkSession(@NonNull OkHttpClient client, ExecutorService networkRequestExecutor,
+                                Executor completionExecutor) {
+        this.client = client;
+        this.networkRequestExecutor = networkRequestExecutor;
+        this.completionExecutor = completionExecutor;
+    }
+
+    @NonNull
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Decodes only the given renditions of the media images, the others are skipped while the
+     * response is parsed and their getters return null.
+     * @param renditions the renditions to decode, or null for all of them
+     */
+    public synchronized void setDecodedRenditions(@Nullable Set<RenditionType> renditions) {
+        this.decodedRenditions = renditions;
+        this.gson = renditions != null || lazyImages ? DefaultNetworkSession.newGson(renditions, lazyImages)
+                : DefaultNetworkSession.GSON_INSTANCE;
+    }
+
+    @Nullable
+    public Set<RenditionType> getDecodedRenditions() {
+        return decodedRenditions;
+    }
+
+    /**
+     * Keeps the renditions of the media images as compact json, and decodes each of them the first
+     * time its getter is called.
+     * @param lazyImages true to decode the renditions on demand
+     */
+    public synchronized void setLazyImages(boolean lazyImages) {
+        this.lazyImages = lazyImages;
+        this.gson = decodedRenditions != null || lazyImages ? DefaultNetworkSession.newGson(decodedRenditions, lazyImages)
+                : DefaultNetworkSession.GSON_INSTANCE;
+    }
+
+    public boolean isLazyImages() {
+        return lazyImages;
+    }
+
+    @Override
+    public <T extends GenericResponse> ApiTask<T> queryStringConnection(@NonNull final Uri serverUrl, @NonNull final String path,
+                                                                        @NonNull final String method, @NonNull final Class<T> responseClass,
+                                                                        @Nullable final Map<String, String> queryStrings,
+                                                                        @Nullable final Map<String, String> headers) {
+        return new ApiTask<>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                return load(serverUrl, path, method, responseClass, queryStrings, headers);
+            }
+        }, networkRequestExecutor, completionExecutor);
+    }
+
+    @NonNull
+    @Override
+    public StreamResponse openStream(@NonNull Uri url, @Nullable Map<String, String> headers) throws IOException {
+        // Past the deadline fails like the HttpURLConnection session, whose timeouts end with it
+        final Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            throw deadlineExceeded(null);
+        }
+        // Media files are already compressed, and the content length must match the stored bytes
+        final Request.Builder requestBuilder = new Request.Builder()
+                .url(url.toString())
+                .header("Accept-Encoding", "identity");
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                requestBuilder.header(header.getKey(), header.getValue());
+            }
+        }
+
+        final Call call = client.newCall(requestBuilder.build());
+        // Also cancels the reads of the body, until the response is closed
+        Future<?> watchdog = null;
+        if (deadline != null) {
+            watchdog = deadline.onExpiry(new Runnable() {
+                @Override
+                public void run() {
+                    call.cancel();
+                }
+            });
+        }
+        try {
+            return new OkHttpStreamResponse(call.execute(), watchdog);
+        } catch (IOException e) {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            if (deadline != null && deadline.isExpired()) {
+                throw deadlineExceeded(e);
+            }
+            throw e;
+        }
+    }
+
+    private static SocketTimeoutException deadlineExceeded(@Nullable IOException cause) {
+        final SocketTimeoutException e = new SocketTimeoutException("Deadline exceeded");
+        if (cause != null) {
+            e.initCause(cause);
+        }
+        return e;
+    }
+
+    @NonNull
+    @Override
+    public <V> ApiTask<V> newTask(@NonNull Callable<V> callable) {
+        return new ApiTask<>(callable, networkRequestExecutor, completionExecutor);
+    }
+
+    private <T extends GenericResponse> T load(@NonNull Uri serverUrl, @NonNull String path, @NonNull String method,
+                                               @NonNull Class<T> responseClass, @Nullable Map<String, String> queryStrings,
+                                               @Nullable Map<String, String> headers) throws Exception {
+        final Deadline deadline = Deadline.current();
+        Future<?> watchdog = null;
+        Response response = null;
+        try {
+            if (deadline != null) {
+                deadline.check();
+            }
+            final Uri.Builder uriBuilder = serverUrl.buildUpon().appendEncodedPath(path);
+
+            if (queryStrings != null) {
+                for (Map.Entry<String, String> query : queryStrings.entrySet()) {
+                    uriBuilder.appendQueryParameter(query.getKey(), query.getValue());
+                }
+            }
+
+            final URL url = new URL(uriBuilder.build().toString());
+            final Request.Builder requestBuilder = new Request.Builder()
+                    .url(url)
+                    .method(method, requestBody(method));
+
+            if (headers != null) {
+                for (Map.Entry<String, String> header : headers.entrySet()) {
+                    requestBuilder.addHeader(header.getKey(), header.getValue());
+                }
+            }
+
+            final Call call = client.newCall(requestBuilder.build());
+            if (deadline != null) {
+                watchdog = deadline.onExpiry(new Runnable() {
+                    @Override
+                    public void run() {
+                        call.cancel();
+                    }
+                });
+            }
+
+            response = call.execute();
+            return readJsonResponse(url, response, responseClass);
+        } catch (Throwable t) {
+            DefaultNetworkSession.logFailure(path, t);
+            if (deadline != null && deadline.isExpired() && !(t instanceof DeadlineExceededException)) {
+                throw new DeadlineExceededException(t);
+            }
+            throw t;
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            // Releases the connection, or the stream of the HTTP/2 connection
+            if (response != null && response.body() != null) {
+                response.body().close();
+            }
+        }
+    }
+
+    /**
+     * OkHttp refuses to send POST, PUT and PATCH without a body, the endpoints take their params
+     * in the url so those get an empty one, like HttpURLConnection sends.
+     */
+    @Nullable
+    private static RequestBody requestBody(@NonNull String method) {
+        if ("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method)) {
+            return RequestBody.create(null, new byte[0]);
+        }
+        return null;
+    }
+
+    private <T extends GenericResponse> T readJsonResponse(URL url, @NonNull Response response,
+                                                          @NonNull Class<T> responseClass) throws IOException, ApiException {
+        final int responseCode = response.code();
+        final ResponseBody body = response.body();
+        final boolean succeeded = responseCode == HttpURLConnection.HTTP_OK
+                || responseCode == HttpURLConnection.HTTP_CREATED
+                || responseCode == HttpURLConnection.HTTP_ACCEPTED;
+        if (succeeded && body != null) {
+            // OkHttp already removed the gzip encoding, decode straight from the stream
+            final JsonReader jsonReader = new JsonReader(body.charStream());
+            try {
+                return gson.fromJson(jsonReader, responseClass);
+            } finally {
+                jsonReader.close();
+            }
+        }
+        final String contents = body != null ? body.string() : "";
+        final long retryAfterMs = RetryPolicy.parseRetryAfter(response.header(DefaultNetworkSession.RETRY_AFTER),
+                System.currentTimeMillis());
+        throw DefaultNetworkSession.readError(url, responseCode, contents).setHttpResponse(responseCode, retryAfterMs);
+    }
+
+    private static class OkHttpStreamResponse implements StreamResponse {
+        private final Response response;
+        @Nullable
+        private final Future<?> watchdog;
+
+        OkHttpStreamResponse(@NonNull Response response, @Nullable Future<?> watchdog) {
+            this.response = response;
+            this.watchdog = watchdog;
+        }
+
+        @Override
+        public int getCode() {
+            return response.code();
+        }
+
+        @Nullable
+        @Override
+        public String getHeader(@NonNull String name) {
+            return response.header(name);
+        }
+
+        @Override
+        public long getContentLength() {
+            return response.body() != null ? response.body().contentLength() : -1;
+        }
+
+        @NonNull
+        @Override
+        public InputStream getBody() throws IOException {
+            if (response.body() == null) {
+                throw new IOException("Response has no body");
+            }
+            return response.body().byteStream();
+        }
+
+        @Override
+        public void close() {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            if (response.body() != null) {
+                response.body().close();
+            }
+        }
+    }
+}
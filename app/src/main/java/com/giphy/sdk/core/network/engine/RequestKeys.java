@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.giphy.sdk.core.network.engine;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds stable identifiers for requests, used to key cached and in-flight responses.
+ */
+public final class RequestKeys {
+    private RequestKeys() {}
+
+    /**
+     * @param path the request path
+     * @param queryStrings the request params, in any order
+     * @return the path followed by the params sorted by name, with their names and values
+     * URL encoded so that a value holding '&' or '=' can't be mistaken for other params
+     */
+    @NonNull
+    public static String create(@NonNull String path, @Nullable Map<String, String> queryStrings) {
+        final StringBuilder key = new StringBuilder(path);
+        if (queryStrings != null && !queryStrings.isEmpty()) {
+            char separator = '?';
+            for (Map.Entry<String, String> query : new TreeMap<>(queryStrings).entrySet()) {
+                key.append(separator).append(encode(query.getKey()));
+                if (query.getValue() != null) {
+                    key.append('=').append(encode(query.getValue()));
+                }
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private static String encode(@NonNull String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
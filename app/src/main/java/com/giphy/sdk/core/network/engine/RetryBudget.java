@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits how many requests are retried so that retries can't amplify an outage.
+ *
+ * Every failed attempt withdraws a token and every successful request deposits a fraction of one.
+ * Requests are retried only while more than half of the tokens are left, so once most requests
+ * fail the retries stop until the successes build the budget back up.
+ */
+public class RetryBudget {
+    public static final int DEFAULT_MAX_TOKENS = 10;
+    public static final float DEFAULT_TOKEN_RATIO = 0.1f;
+
+    // Tokens are counted in thousandths so that fractional deposits stay atomic
+    private static final int SCALE = 1000;
+
+    private final int maxTokens;
+    private final float tokenRatio;
+    private final AtomicInteger scaledTokens;
+
+    public RetryBudget() {
+        this(DEFAULT_MAX_TOKENS, DEFAULT_TOKEN_RATIO);
+    }
+
+    /**
+     * @param maxTokens size of the budget, retries stop once half of it is spent
+     * @param tokenRatio tokens deposited by each successful request
+     */
+    public RetryBudget(int maxTokens, float tokenRatio) {
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("maxTokens must be at least 1");
+        }
+        if (tokenRatio <= 0) {
+            throw new IllegalArgumentException("tokenRatio must be positive");
+        }
+        this.maxTokens = maxTokens;
+        this.tokenRatio = tokenRatio;
+        this.scaledTokens = new AtomicInteger(maxTokens * SCALE);
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    public float getTokenRatio() {
+        return tokenRatio;
+    }
+
+    /**
+     * @return the tokens currently left
+     */
+    public float getTokens() {
+        return scaledTokens.get() / (float) SCALE;
+    }
+
+    /**
+     * @return true if the budget allows another retry
+     */
+    boolean canRetry() {
+        return scaledTokens.get() * 2 > maxTokens * SCALE;
+    }
+
+    void onFailure() {
+        add(-SCALE);
+    }
+
+    void onSuccess() {
+        add(Math.round(tokenRatio * SCALE));
+    }
+
+    private void add(int delta) {
+        while (true) {
+            final int current = scaledTokens.get();
+            final int updated = Math.max(0, Math.min(maxTokens * SCALE, current + delta));
+            if (scaledTokens.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+}
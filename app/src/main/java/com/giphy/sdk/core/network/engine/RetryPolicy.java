@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.engine;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.giphy.sdk.core.threading.Deadline;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Describes how failed GET requests are retried.
+ *
+ * Connection failures, timeouts and the 408, 429, 500, 502, 503 and 504 responses are retried
+ * after an exponential backoff with full jitter. A Retry-After header sent by the server is used
+ * as the minimum delay, and the request fails right away if the server asks to wait longer than
+ * the maximum delay or past the deadline of the request. All the requests retried with a policy
+ * share its {@link RetryBudget}.
+ */
+public class RetryPolicy {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_BASE_DELAY_MS = 250;
+    public static final long DEFAULT_MAX_DELAY_MS = 10 * 1000L;
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final RetryBudget retryBudget;
+    private final Random random = new Random();
+
+    public RetryPolicy() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_DELAY_MS, DEFAULT_MAX_DELAY_MS);
+    }
+
+    /**
+     * @param maxAttempts maximum number of attempts per request, including the first one
+     * @param baseDelayMs delay before the first retry, doubled for each of the following ones
+     * @param maxDelayMs maximum delay between two attempts
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this(maxAttempts, baseDelayMs, maxDelayMs, new RetryBudget());
+    }
+
+    /**
+     * @param maxAttempts maximum number of attempts per request, including the first one
+     * @param baseDelayMs delay before the first retry, doubled for each of the following ones
+     * @param maxDelayMs maximum delay between two attempts
+     * @param retryBudget the budget limiting the retries, can be shared with other policies
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs, @NonNull RetryBudget retryBudget) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (baseDelayMs < 0 || maxDelayMs < baseDelayMs) {
+            throw new IllegalArgumentException("delays must satisfy 0 <= baseDelayMs <= maxDelayMs");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.retryBudget = retryBudget;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getBaseDelayMs() {
+        return baseDelayMs;
+    }
+
+    public long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+
+    @NonNull
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * @return true if the HTTP status is worth retrying
+     */
+    public static boolean isRetryableStatus(int status) {
+        switch (status) {
+            case 408:
+            case HTTP_TOO_MANY_REQUESTS:
+            case 500:
+            case 502:
+            case 503:
+            case 504:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    void onSuccess() {
+        retryBudget.onSuccess();
+    }
+
+    /**
+     * Records a failed attempt.
+     * @param attempt number of attempts made so far, starting at 1
+     * @param error why the attempt failed
+     * @param deadline deadline of the request, if any
+     * @return how long to wait before the next attempt, or -1 to give up
+     */
+    long onFailure(int attempt, @NonNull Throwable error, @Nullable Deadline deadline) {
+        long retryAfterMs = -1;
+        if (error instanceof ApiException) {
+            final ApiException apiException = (ApiException) error;
+            if (!isRetryableStatus(apiException.getHttpStatus())) {
+                return -1;
+            }
+            retryAfterMs = apiException.getRetryAfterMs();
+        } else if (!(error instanceof IOException)
+                || (error instanceof InterruptedIOException && !(error instanceof SocketTimeoutException))) {
+            // Other interrupted reads come from cancelling the request
+            return -1;
+        }
+
+        retryBudget.onFailure();
+        if (attempt >= maxAttempts || retryAfterMs > maxDelayMs || Thread.currentThread().isInterrupted()
+                || !retryBudget.canRetry()) {
+            return -1;
+        }
+
+        final long backoffMs = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 30));
+        final long delayMs = Math.max(retryAfterMs, (long) (random.nextDouble() * backoffMs));
+        if (deadline != null && delayMs >= deadline.remainingMillis()) {
+            return -1;
+        }
+        return delayMs;
+    }
+
+    /**
+     * @param retryAfter value of a Retry-After header, either a number of seconds or an HTTP date
+     * @return the delay in milliseconds, or -1 if there's none
+     */
+    static long parseRetryAfter(@Nullable String retryAfter, long now) {
+        if (retryAfter == null) {
+            return -1;
+        }
+        final String value = retryAfter.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException ignored) {
+        }
+        final SimpleDateFormat format = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            return Math.max(0, format.parse(value).getTime() - now);
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+}
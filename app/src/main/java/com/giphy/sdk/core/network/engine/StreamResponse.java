@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.network.engine;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The response of a request opened with {@link ByteStreamSession#openStream}, to be closed once
+ * its body has been read.
+ */
+public interface StreamResponse extends Closeable {
+    /**
+     * @return the HTTP status code
+     */
+    int getCode();
+
+    /**
+     * @return the value of a response header, or null if it's missing
+     */
+    @Nullable
+    String getHeader(@NonNull String name);
+
+    /**
+     * @return the length of the body in bytes, or -1 if it's unknown
+     */
+    long getContentLength();
+
+    /**
+     * @return the body, streamed from the network
+     */
+    @NonNull
+    InputStream getBody() throws IOException;
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.threading;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Bounds the number of tasks waiting in a {@link PriorityThreadPoolExecutor} and decides which
+ * task is shed when a new one arrives while the queue is full.
+ */
+public class AdmissionPolicy {
+    public enum ShedStrategy {
+        /**
+         * The new task is rejected
+         */
+        REJECT_NEWEST,
+        /**
+         * The oldest queued task with the same shed key as the new task is dropped, e.g. the
+         * page of a feed the user already scrolled past. The new task is rejected if there's none.
+         */
+        DROP_OLDEST_SAME_KEY,
+        /**
+         * The oldest queued task of the least urgent priority is dropped, unless it's more urgent
+         * than the new task, which is rejected instead
+         */
+        DROP_LOWEST_PRIORITY
+    }
+
+    private final int maxQueuedTasks;
+    private final ShedStrategy shedStrategy;
+
+    /**
+     * @param maxQueuedTasks maximum number of tasks waiting for a thread
+     * @param shedStrategy what to do with a new task when the queue is full
+     */
+    public AdmissionPolicy(int maxQueuedTasks, @NonNull ShedStrategy shedStrategy) {
+        if (maxQueuedTasks < 1) {
+            throw new IllegalArgumentException("maxQueuedTasks must be at least 1");
+        }
+        this.maxQueuedTasks = maxQueuedTasks;
+        this.shedStrategy = shedStrategy;
+    }
+
+    public int getMaxQueuedTasks() {
+        return maxQueuedTasks;
+    }
+
+    @NonNull
+    public ShedStrategy getShedStrategy() {
+        return shedStrategy;
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.threading;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.giphy.sdk.core.network.api.CompletionHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A composable result of an async task, the counterpart of {@link CompletionHandler} for
+ * chaining, combining and timing out requests without blocking a thread.
+ *
+ * Continuations run on the thread that completes the future, which is the completion executor
+ * for the futures returned by {@link ApiTask#executeAsync()}, so chaining doesn't add thread hops.
+ * Timeouts are delivered on the callback executor as well.
+ *
+ * Cancelling a future cancels the task or the futures it was derived from.
+ */
+public class ApiFuture<V> implements Future<V> {
+    /**
+     * Maps the value of a future to the value of the derived future
+     */
+    public interface Transform<V, R> {
+        R apply(V value) throws Exception;
+    }
+
+    /**
+     * Maps the value of a future to another async task, e.g. a dependent request
+     */
+    public interface Composition<V, R> {
+        @NonNull
+        ApiFuture<R> apply(V value) throws Exception;
+    }
+
+    private static ScheduledExecutorService TIMEOUT_SCHEDULER;
+
+    private static synchronized ScheduledExecutorService getTimeoutScheduler() {
+        if (TIMEOUT_SCHEDULER == null) {
+            TIMEOUT_SCHEDULER = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "ApiFuture timeouts");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return TIMEOUT_SCHEDULER;
+    }
+
+    private final Executor callbackExecutor;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final List<Future<?>> upstreams = new ArrayList<>();
+    private List<CompletionHandler<? super V>> handlers = new ArrayList<>();
+    private V value;
+    private Throwable error;
+    private boolean cancelled;
+
+    public ApiFuture() {
+        this(ApiTask.getCompletionExecutor());
+    }
+
+    /**
+     * @param callbackExecutor the executor on which the future is completed
+     */
+    public ApiFuture(@NonNull Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    @NonNull
+    public static <V> ApiFuture<V> completed(V value) {
+        final ApiFuture<V> future = new ApiFuture<>();
+        future.complete(value);
+        return future;
+    }
+
+    @NonNull
+    public static <V> ApiFuture<V> failed(@NonNull Throwable error) {
+        final ApiFuture<V> future = new ApiFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    /**
+     * @return a future holding the values of all the futures, in the same order. It fails as soon
+     * as one of them fails, and cancelling it cancels all of them.
+     */
+    @NonNull
+    public static <V> ApiFuture<List<V>> allOf(@NonNull final List<? extends ApiFuture<? extends V>> futures) {
+        if (futures.isEmpty()) {
+            return ApiFuture.<List<V>>completed(new ArrayList<V>());
+        }
+        final ApiFuture<List<V>> all = new ApiFuture<>(((ApiFuture<?>) futures.get(0)).callbackExecutor);
+        final Object[] values = new Object[futures.size()];
+        final AtomicInteger remaining = new AtomicInteger(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            final int index = i;
+            final ApiFuture<? extends V> future = futures.get(i);
+            all.addUpstream(future);
+            future.addCompletionHandler(new CompletionHandler<V>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public void onComplete(V result, Throwable e) {
+                    if (e != null) {
+                        all.completeExceptionally(e);
+                        return;
+                    }
+                    values[index] = result;
+                    if (remaining.decrementAndGet() == 0) {
+                        all.complete((List<V>) Arrays.asList(values));
+                    }
+                }
+            });
+        }
+        return all;
+    }
+
+    /**
+     * @return a future holding the values of all the futures, in the same order
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static <V> ApiFuture<List<V>> allOf(@NonNull ApiFuture<? extends V>... futures) {
+        return allOf(Arrays.asList(futures));
+    }
+
+    /**
+     * @return true if this call completed the future
+     */
+    public boolean complete(V value) {
+        return finish(value, null, false);
+    }
+
+    /**
+     * @return true if this call completed the future
+     */
+    public boolean completeExceptionally(@NonNull Throwable error) {
+        return finish(null, error, false);
+    }
+
+    /**
+     * @return a completion handler that completes this future
+     */
+    @NonNull
+    public CompletionHandler<V> asCompletionHandler() {
+        return new CompletionHandler<V>() {
+            @Override
+            public void onComplete(V result, Throwable e) {
+                finish(result, e, false);
+            }
+        };
+    }
+
+    /**
+     * Cancels the given task along with this future
+     */
+    public void addUpstream(@NonNull Future<?> upstream) {
+        final boolean cancelNow;
+        synchronized (this) {
+            cancelNow = cancelled;
+            if (!cancelNow) {
+                upstreams.add(upstream);
+            }
+        }
+        if (cancelNow) {
+            upstream.cancel(true);
+        }
+    }
+
+    /**
+     * Notifies the handler once the future completes, right away if it already did
+     */
+    @NonNull
+    public ApiFuture<V> addCompletionHandler(@NonNull CompletionHandler<? super V> completionHandler) {
+        synchronized (this) {
+            if (handlers != null) {
+                handlers.add(completionHandler);
+                return this;
+            }
+        }
+        completionHandler.onComplete(value, error);
+        return this;
+    }
+
+    /**
+     * @return a future holding the value of this one mapped by transform
+     */
+    @NonNull
+    public <R> ApiFuture<R> thenApply(@NonNull final Transform<? super V, ? extends R> transform) {
+        final ApiFuture<R> next = new ApiFuture<>(callbackExecutor);
+        next.addUpstream(this);
+        addCompletionHandler(new CompletionHandler<V>() {
+            @Override
+            public void onComplete(V result, Throwable e) {
+                if (e != null) {
+                    next.completeExceptionally(e);
+                    return;
+                }
+                try {
+                    next.complete(transform.apply(result));
+                } catch (Throwable t) {
+                    next.completeExceptionally(t);
+                }
+            }
+        });
+        return next;
+    }
+
+    /**
+     * @return a future holding the value of the task started by composition once this one
+     * completes
+     */
+    @NonNull
+    public <R> ApiFuture<R> thenCompose(@NonNull final Composition<? super V, R> composition) {
+        final ApiFuture<R> next = new ApiFuture<>(callbackExecutor);
+        next.addUpstream(this);
+        addCompletionHandler(new CompletionHandler<V>() {
+            @Override
+            public void onComplete(V result, Throwable e) {
+                if (e != null) {
+                    next.completeExceptionally(e);
+                    return;
+                }
+                try {
+                    final ApiFuture<R> inner = composition.apply(result);
+                    next.addUpstream(inner);
+                    inner.addCompletionHandler(next.asCompletionHandler());
+                } catch (Throwable t) {
+                    next.completeExceptionally(t);
+                }
+            }
+        });
+        return next;
+    }
+
+    /**
+     * @return a future that fails with a {@link TimeoutException} and cancels this one if it
+     * doesn't complete in time
+     */
+    @NonNull
+    public ApiFuture<V> withTimeout(final long timeout, @NonNull final TimeUnit unit) {
+        final ApiFuture<V> next = new ApiFuture<>(callbackExecutor);
+        next.addUpstream(this);
+        final ScheduledFuture<?> timer = getTimeoutScheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                callbackExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (next.completeExceptionally(new TimeoutException("Timed out after " + timeout + " " + unit))) {
+                            cancel(true);
+                        }
+                    }
+                });
+            }
+        }, timeout, unit);
+        addCompletionHandler(new CompletionHandler<V>() {
+            @Override
+            public void onComplete(V result, Throwable e) {
+                timer.cancel(false);
+                next.finish(result, e, false);
+            }
+        });
+        return next;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!finish(null, new CancellationException(), true)) {
+            return false;
+        }
+        final List<Future<?>> toCancel;
+        synchronized (this) {
+            toCancel = new ArrayList<>(upstreams);
+            upstreams.clear();
+        }
+        for (Future<?> upstream : toCancel) {
+            upstream.cancel(mayInterruptIfRunning);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    @Override
+    public V get() throws InterruptedException, ExecutionException {
+        done.await();
+        return report();
+    }
+
+    @Override
+    public V get(long timeout, @NonNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return report();
+    }
+
+    private synchronized V report() throws ExecutionException {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        if (error != null) {
+            throw new ExecutionException(error);
+        }
+        return value;
+    }
+
+    private boolean finish(@Nullable V value, @Nullable Throwable error, boolean cancel) {
+        final List<CompletionHandler<? super V>> completionHandlers;
+        synchronized (this) {
+            if (handlers == null) {
+                return false;
+            }
+            this.value = value;
+            this.error = error;
+            this.cancelled = cancel;
+            completionHandlers = handlers;
+            handlers = null;
+        }
+        done.countDown();
+        for (CompletionHandler<? super V> completionHandler : completionHandlers) {
+            try {
+                completionHandler.onComplete(value, error);
+            } catch (RuntimeException e) {
+                Log.e(ApiFuture.class.getName(), "Completion handler failed", e);
+            }
+        }
+        return true;
+    }
+}
@@ -11,17 +11,19 @@ package com.giphy.sdk.core.threading;
 
 import android.os.Handler;
 import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.util.Log;
 
 import com.giphy.sdk.core.network.api.CompletionHandler;
 
-import java.io.InterruptedIOException;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -47,17 +49,24 @@ public class ApiTask<V> {
 
     public static ExecutorService getNetworkRequestExecutor() {
         if (NETWORK_REQUEST_EXECUTOR == null) {
-            NETWORK_REQUEST_EXECUTOR = new ThreadPoolExecutor(
-                    THREAD_POOL_CORE_SIZE,
+            NETWORK_REQUEST_EXECUTOR = new PriorityThreadPoolExecutor(
                     THREAD_POOL_MAX_SIZE,
                     THREAD_POOL_KEEP_ALIVE_TIME,
-                    TimeUnit.SECONDS,
-                    new LinkedBlockingQueue<Runnable>()
+                    TimeUnit.SECONDS
             );
         }
         return NETWORK_REQUEST_EXECUTOR;
     }
 
+    /**
+     * @return the number of requests waiting for a thread of the shared executor, so that callers
+     * can hold back new ones, e.g. prefetches
+     */
+    public static int getNetworkQueueDepth() {
+        final ExecutorService executor = getNetworkRequestExecutor();
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+    }
+
     private static Executor COMPLETION_EXECUTOR;
 
     public static Executor getCompletionExecutor() {
@@ -70,6 +79,7 @@ public class ApiTask<V> {
     private final Callable<V> callable;
     private final ExecutorService networkRequestExecutor;
     private final Executor completionExecutor;
+    private volatile long deadlineMs = -1;
 
     public ApiTask(Callable<V> callable) {
         this.callable = callable;
@@ -83,6 +93,20 @@ public class ApiTask<V> {
         this.completionExecutor = completionExecutor;
     }
 
+    /**
+     * Sets how long the task may take from the moment it's executed, including the time it waits
+     * in the queue. Past the deadline the completionHandler gets a {@link DeadlineExceededException}.
+     *
+     * @param timeout the time allowed, or a negative value for no deadline
+     * @param unit unit of timeout
+     * @return this task
+     */
+    @NonNull
+    public ApiTask<V> setDeadline(long timeout, @NonNull TimeUnit unit) {
+        deadlineMs = timeout < 0 ? -1 : unit.toMillis(timeout);
+        return this;
+    }
+
     /**
      * Resolves the task on a shared thread pool executor service and returns the result using the
      * completionHandler
@@ -91,11 +115,74 @@ public class ApiTask<V> {
      * @return
      */
     public Future executeAsyncTask(final CompletionHandler<V> completionHandler) {
-        return networkRequestExecutor.submit(new Runnable() {
+        return executeAsyncTask(completionHandler, PriorityThreadPoolExecutor.DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Resolves the task on a shared thread pool executor service and returns the result using the
+     * completionHandler. Queued tasks of a higher priority run first.
+     *
+     * @param completionHandler
+     * @param priority how urgent the task is
+     * @return
+     */
+    public Future executeAsyncTask(final CompletionHandler<V> completionHandler, @NonNull Priority priority) {
+        return executeAsyncTask(completionHandler, priority, null);
+    }
+
+    /**
+     * Resolves the task on a shared thread pool executor service and returns the result using the
+     * completionHandler. If the executor has a bounded queue, the task may be shed while queued or
+     * rejected right away, in which case the completionHandler gets a
+     * {@link RejectedExecutionException}.
+     *
+     * @param completionHandler
+     * @param priority how urgent the task is
+     * @param shedKey identifies tasks that supersede each other, see
+     *                {@link AdmissionPolicy.ShedStrategy#DROP_OLDEST_SAME_KEY}
+     * @return
+     */
+    public Future executeAsyncTask(final CompletionHandler<V> completionHandler, @NonNull Priority priority,
+                                   @Nullable String shedKey) {
+        return executeAsyncTask(completionHandler, priority, shedKey, newDeadline());
+    }
+
+    /**
+     * Same as {@link #executeAsyncTask(CompletionHandler, Priority, String)} with a deadline
+     * created by the caller with {@link #newDeadline()}, e.g. to share it between several runs of
+     * the task.
+     *
+     * @param deadline the deadline of the run, or null for none
+     */
+    public Future executeAsyncTask(final CompletionHandler<V> completionHandler, @NonNull Priority priority,
+                                   @Nullable String shedKey, @Nullable Deadline deadline) {
+        try {
+            return submit(completionHandler, priority, shedKey, deadline);
+        } catch (final RejectedExecutionException e) {
+            notifyRejected(completionHandler, e);
+            final FutureTask<V> rejected = new FutureTask<>(new Callable<V>() {
+                @Override
+                public V call() throws Exception {
+                    throw e;
+                }
+            });
+            rejected.run();
+            return rejected;
+        }
+    }
+
+    private Future submit(final CompletionHandler<V> completionHandler, @NonNull Priority priority,
+                          @Nullable String shedKey, @Nullable final Deadline deadline) {
+        return networkRequestExecutor.submit(new PriorityRunnable(priority, shedKey) {
+            @Override
+            public void onShed() {
+                notifyRejected(completionHandler, new RejectedExecutionException("Request shed from the network queue"));
+            }
+
             @Override
             public void run() {
                 try {
-                    final V value = callable.call();
+                    final V value = call(deadline);
 
                     // If thread was interrupted, throw error
                     if (Thread.currentThread().isInterrupted()) {
@@ -117,8 +204,11 @@ public class ApiTask<V> {
                             completionHandler.onComplete(null, e);
                         }
                     });
-                } catch (InterruptedIOException|InterruptedException e) { // interrupts will naturally occur from cancelling
                 } catch (final Throwable e) {
+                    // Interrupts will naturally occur from cancelling, no one waits for the result then
+                    if (isCancellation(e)) {
+                        return;
+                    }
                     completionExecutor.execute(new Runnable() {
                         @Override
                         public void run() {
@@ -130,6 +220,60 @@ public class ApiTask<V> {
         });
     }
 
+    /**
+     * Removes a run of this task from the queue of the executor if it hasn't started yet. The
+     * completionHandler of a removed run is never notified.
+     *
+     * @param future the future returned when the task was executed
+     * @return true if the run was removed, false if it started already or can't be removed
+     */
+    public boolean unqueue(@NonNull Future future) {
+        return networkRequestExecutor instanceof ThreadPoolExecutor && future instanceof Runnable
+                && ((ThreadPoolExecutor) networkRequestExecutor).remove((Runnable) future);
+    }
+
+    /**
+     * Resolves the task on a shared thread pool executor service and returns its result as a
+     * composable future, completed on the completion executor.
+     *
+     * @return
+     */
+    @NonNull
+    public ApiFuture<V> executeAsync() {
+        return executeAsync(PriorityThreadPoolExecutor.DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Resolves the task on a shared thread pool executor service and returns its result as a
+     * composable future, completed on the completion executor.
+     *
+     * @param priority how urgent the task is
+     * @return
+     */
+    @NonNull
+    public ApiFuture<V> executeAsync(@NonNull Priority priority) {
+        final ApiFuture<V> future = new ApiFuture<>(completionExecutor);
+        future.addUpstream(executeAsyncTask(future.asCompletionHandler(), priority));
+        return future;
+    }
+
+    /**
+     * @return true if the task failed because it was cancelled. Timeouts aren't, even though
+     * socket read timeouts are InterruptedIOExceptions too.
+     */
+    private static boolean isCancellation(Throwable e) {
+        return e instanceof InterruptedException || Thread.currentThread().isInterrupted();
+    }
+
+    private void notifyRejected(final CompletionHandler<V> completionHandler, final RejectedExecutionException e) {
+        completionExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                completionHandler.onComplete(null, e);
+            }
+        });
+    }
+
     /**
      * Immediately resolves the task on the same thread.
      *
@@ -137,6 +281,34 @@ public class ApiTask<V> {
      * @throws Exception
      */
     public V executeImmediately() throws Exception {
-        return callable.call();
+        return call(newDeadline());
+    }
+
+    /**
+     * @return a deadline starting now for the task, or null if it has none
+     */
+    @Nullable
+    public Deadline newDeadline() {
+        final long timeoutMs = deadlineMs;
+        return timeoutMs >= 0 ? Deadline.after(timeoutMs, TimeUnit.MILLISECONDS) : null;
+    }
+
+    /**
+     * Runs the callable with its deadline visible through {@link Deadline#current()}
+     */
+    private V call(@Nullable Deadline deadline) throws Exception {
+        if (deadline == null) {
+            return callable.call();
+        }
+        deadline.check();
+        Deadline.setCurrent(deadline);
+        final V value;
+        try {
+            value = callable.call();
+        } finally {
+            Deadline.setCurrent(null);
+        }
+        deadline.check();
+        return value;
     }
 }
\ No newline at end of file
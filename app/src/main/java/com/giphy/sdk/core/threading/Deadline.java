@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.threading;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which a task must complete, covering the time it waits in the queue as well
+ * as the time it runs. {@link ApiTask} makes the deadline of the running task available through
+ * {@link #current()} so that the network layer can bound its connect and read timeouts.
+ */
+public final class Deadline {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private static ScheduledExecutorService WATCHDOG;
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * @return a deadline expiring after the given timeout from now
+     */
+    @NonNull
+    public static Deadline after(long timeout, @NonNull TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * @return the deadline of the task running on the current thread, or null if it has none
+     */
+    @Nullable
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    static void setCurrent(@Nullable Deadline deadline) {
+        if (deadline != null) {
+            CURRENT.set(deadline);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return the time left in milliseconds, 0 once expired
+     */
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @throws DeadlineExceededException if the deadline expired
+     */
+    public void check() throws DeadlineExceededException {
+        if (isExpired()) {
+            throw new DeadlineExceededException();
+        }
+    }
+
+    /**
+     * Runs the action when the deadline expires, e.g. to abort a blocking read
+     * @return a future to cancel the action with
+     */
+    @NonNull
+    public Future<?> onExpiry(@NonNull Runnable action) {
+        return getWatchdog().schedule(action, expiresAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private static synchronized ScheduledExecutorService getWatchdog() {
+        if (WATCHDOG == null) {
+            WATCHDOG = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "Deadline watchdog");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return WATCHDOG;
+    }
+}
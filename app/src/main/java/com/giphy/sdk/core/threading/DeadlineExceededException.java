@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.threading;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reported when a task doesn't complete before its {@link Deadline}.
+ */
+public class DeadlineExceededException extends TimeoutException {
+    public DeadlineExceededException() {
+        super("Deadline exceeded");
+    }
+
+    public DeadlineExceededException(Throwable cause) {
+        this();
+        initCause(cause);
+    }
+}
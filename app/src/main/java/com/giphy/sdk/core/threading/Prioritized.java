@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.threading;
+
+import android.support.annotation.NonNull;
+
+/**
+ * A task that tells the {@link PriorityThreadPoolExecutor} how urgent it is.
+ */
+public interface Prioritized {
+    @NonNull
+    Priority getPriority();
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.threading;
+
+/**
+ * Scheduling classes of the network requests, from the most to the least urgent. Queued requests
+ * of a more urgent class run before the ones of a less urgent class, in order of submission
+ * within the same class.
+ */
+public enum Priority {
+    /**
+     * The user is waiting on the result, e.g. typed search
+     */
+    INTERACTIVE,
+    /**
+     * The result is displayed on screen as soon as it arrives
+     */
+    VISIBLE,
+    /**
+     * The result is likely to be displayed soon, e.g. the next page of a feed
+     */
+    PREFETCH,
+    /**
+     * Nobody is waiting on the result, e.g. cache refreshes
+     */
+    BACKGROUND
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.threading;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Base class for anonymous runnables that carry a {@link Priority} and an optional shed key.
+ */
+public abstract class PriorityRunnable implements Runnable, Prioritized, Sheddable {
+    private final Priority priority;
+    private final String shedKey;
+
+    public PriorityRunnable(@NonNull Priority priority) {
+        this(priority, null);
+    }
+
+    public PriorityRunnable(@NonNull Priority priority, @Nullable String shedKey) {
+        this.priority = priority;
+        this.shedKey = shedKey;
+    }
+
+    @NonNull
+    @Override
+    public Priority getPriority() {
+        return priority;
+    }
+
+    @Nullable
+    @Override
+    public String getShedKey() {
+        return shedKey;
+    }
+
+    @Override
+    public void onShed() {
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.threading;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread pool that runs queued tasks by {@link Priority} instead of in submission order, so that
+ * a request the user is waiting on overtakes the prefetches queued before it.
+ *
+ * Tasks implementing {@link Prioritized} are scheduled with their priority, the others with
+ * {@link #DEFAULT_PRIORITY}. Tasks that already started are never preempted.
+ *
+ * The queue is unbounded unless an {@link AdmissionPolicy} is set, in which case tasks over the
+ * limit are shed: either the new task is rejected with a {@link RejectedExecutionException}, or a
+ * queued one is dropped and notified through {@link Sheddable#onShed()}.
+ */
+public class PriorityThreadPoolExecutor extends ThreadPoolExecutor {
+    public static final Priority DEFAULT_PRIORITY = Priority.VISIBLE;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Object admissionLock = new Object();
+    private volatile AdmissionPolicy admissionPolicy;
+
+    /**
+     * The queue is unbounded so the pool never grows past its core size, which is why it's also
+     * the maximum size. Idle threads are released after keepAliveTime.
+     * @param poolSize maximum number of tasks running at the same time
+     * @param keepAliveTime how long an idle thread is kept
+     * @param unit unit of keepAliveTime
+     */
+    public PriorityThreadPoolExecutor(int poolSize, long keepAliveTime, @NonNull TimeUnit unit) {
+        super(poolSize, poolSize, keepAliveTime, unit, new PriorityBlockingQueue<Runnable>());
+        allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param admissionPolicy bounds the queue, or null to leave it unbounded
+     */
+    public void setAdmissionPolicy(@Nullable AdmissionPolicy admissionPolicy) {
+        this.admissionPolicy = admissionPolicy;
+    }
+
+    @Nullable
+    public AdmissionPolicy getAdmissionPolicy() {
+        return admissionPolicy;
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread
+     */
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    /**
+     * @return the number of tasks of the given priority waiting for a thread
+     */
+    public int getQueueDepth(@NonNull Priority priority) {
+        int depth = 0;
+        for (Runnable queued : getQueue()) {
+            if (((PriorityTask<?>) queued).priority == priority) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        // The queue only orders PriorityTasks, plain runnables are wrapped here
+        final PriorityTask<?> task = command instanceof PriorityTask
+                ? (PriorityTask<?>) command : (PriorityTask<?>) newTaskFor(command, null);
+        final AdmissionPolicy policy = admissionPolicy;
+        if (policy == null) {
+            super.execute(task);
+            return;
+        }
+
+        PriorityTask<?> shed = null;
+        synchronized (admissionLock) {
+            while (shed == null && getQueue().size() >= policy.getMaxQueuedTasks()) {
+                final PriorityTask<?> candidate = selectShed(task, policy.getShedStrategy());
+                // A worker may have taken the candidate meanwhile, which also made room
+                if (getQueue().remove(candidate)) {
+                    shed = candidate;
+                }
+            }
+            super.execute(task);
+        }
+        if (shed != null) {
+            shed.shed();
+        }
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return new PriorityTask<>(runnable, value, runnable, sequence.getAndIncrement());
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new PriorityTask<>(callable, callable, sequence.getAndIncrement());
+    }
+
+    /**
+     * @return the queued task to drop to make room for the new task
+     * @throws RejectedExecutionException if the new task should be rejected instead
+     */
+    @NonNull
+    private PriorityTask<?> selectShed(@NonNull PriorityTask<?> task, @NonNull AdmissionPolicy.ShedStrategy strategy) {
+        PriorityTask<?> shed = null;
+        switch (strategy) {
+            case DROP_OLDEST_SAME_KEY:
+                if (task.shedKey == null) {
+                    break;
+                }
+                for (Runnable queued : getQueue()) {
+                    final PriorityTask<?> candidate = (PriorityTask<?>) queued;
+                    if (task.shedKey.equals(candidate.shedKey) && (shed == null || candidate.sequence < shed.sequence)) {
+                        shed = candidate;
+                    }
+                }
+                break;
+            case DROP_LOWEST_PRIORITY:
+                for (Runnable queued : getQueue()) {
+                    final PriorityTask<?> candidate = (PriorityTask<?>) queued;
+                    if (shed == null || candidate.priority.ordinal() > shed.priority.ordinal()
+                            || (candidate.priority == shed.priority && candidate.sequence < shed.sequence)) {
+                        shed = candidate;
+                    }
+                }
+                if (shed != null && shed.priority.ordinal() < task.priority.ordinal()) {
+                    shed = null;
+                }
+                break;
+            case REJECT_NEWEST:
+            default:
+                break;
+        }
+        if (shed == null) {
+            throw new RejectedExecutionException("Network request queue is full");
+        }
+        return shed;
+    }
+
+    @Nullable
+    private static String shedKeyOf(Object task) {
+        return task instanceof Sheddable ? ((Sheddable) task).getShedKey() : null;
+    }
+
+    @NonNull
+    private static Priority priorityOf(Object task) {
+        return task instanceof Prioritized ? ((Prioritized) task).getPriority() : DEFAULT_PRIORITY;
+    }
+
+    private static class PriorityTask<T> extends FutureTask<T> implements Comparable<PriorityTask<?>>, Prioritized {
+        private final Object task;
+        private final Priority priority;
+        private final String shedKey;
+        private final long sequence;
+
+        PriorityTask(Runnable runnable, T value, Object task, long sequence) {
+            super(runnable, value);
+            this.task = task;
+            this.priority = priorityOf(task);
+            this.shedKey = shedKeyOf(task);
+            this.sequence = sequence;
+        }
+
+        PriorityTask(Callable<T> callable, Object task, long sequence) {
+            super(callable);
+            this.task = task;
+            this.priority = priorityOf(task);
+            this.shedKey = shedKeyOf(task);
+            this.sequence = sequence;
+        }
+
+        void shed() {
+            if (cancel(false) && task instanceof Sheddable) {
+                ((Sheddable) task).onShed();
+            }
+        }
+
+        @NonNull
+        @Override
+        public Priority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public int compareTo(@NonNull PriorityTask<?> other) {
+            if (priority != other.priority) {
+                return priority.ordinal() < other.priority.ordinal() ? -1 : 1;
+            }
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2017 Giphy Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package com.giphy.sdk.core.threading;
+
+import android.support.annotation.Nullable;
+
+/**
+ * A task that can be dropped from the queue of a {@link PriorityThreadPoolExecutor} when it's
+ * full, see {@link AdmissionPolicy}.
+ */
+public interface Sheddable {
+    /**
+     * @return identifies tasks that supersede each other, or null
+     */
+    @Nullable
+    String getShedKey();
+
+    /**
+     * Called instead of running the task when it's dropped from the queue
+     */
+    void onShed();
+}